@@ -0,0 +1,78 @@
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Retained heap per deal held in memory during batch processing: the compact FxDeal against the
+// previous layout (String currencies, BigDecimal amount), with identical ids and timestamps.
+// Currency strings and amounts are created per row, as Jackson does when reading a request.
+//
+//   mvn -q compile && java -Xmx4g -cp target/classes benchmarks/memory/DealFootprint.java [deals]
+public class DealFootprint {
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY", "CHF", "MAD", "CAD", "AUD"};
+
+    static final class LegacyDeal {
+        final String dealId;
+        final String fromCurrency;
+        final String toCurrency;
+        final LocalDateTime dealTimestamp;
+        final BigDecimal dealAmount;
+        final LocalDateTime createdAt;
+
+        LegacyDeal(String dealId, String fromCurrency, String toCurrency, LocalDateTime dealTimestamp,
+                   BigDecimal dealAmount, LocalDateTime createdAt) {
+            this.dealId = dealId;
+            this.fromCurrency = fromCurrency;
+            this.toCurrency = toCurrency;
+            this.dealTimestamp = dealTimestamp;
+            this.dealAmount = dealAmount;
+            this.createdAt = createdAt;
+        }
+    }
+
+    public static void main(String[] args) {
+        int deals = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] ids = new String[deals];
+        LocalDateTime[] timestamps = new LocalDateTime[deals];
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < deals; i++) {
+            ids[i] = "DEAL" + i;
+            timestamps[i] = base.plusSeconds(i);
+        }
+        LocalDateTime createdAt = LocalDateTime.now();
+
+        long before = usedHeap();
+        Object[] legacy = new Object[deals];
+        for (int i = 0; i < deals; i++) {
+            legacy[i] = new LegacyDeal(ids[i], new String(CURRENCIES[i % 8]), new String(CURRENCIES[(i + 1) % 8]),
+                    timestamps[i], new BigDecimal(i + ".25"), createdAt);
+        }
+        long legacyBytes = usedHeap() - before;
+        legacy = null;
+
+        before = usedHeap();
+        Object[] compact = new Object[deals];
+        for (int i = 0; i < deals; i++) {
+            FxDeal deal = new FxDeal(ids[i], new String(CURRENCIES[i % 8]), new String(CURRENCIES[(i + 1) % 8]),
+                    timestamps[i], new BigDecimal(i + ".25"));
+            deal.setCreatedAt(createdAt);
+            compact[i] = deal;
+        }
+        long compactBytes = usedHeap() - before;
+
+        System.out.printf("deals: %,d%n", deals);
+        System.out.printf("legacy layout : %,d bytes/deal%n", legacyBytes / deals);
+        System.out.printf("compact FxDeal: %,d bytes/deal%n", compactBytes / deals);
+        System.out.printf("saved         : %.0f%%%n", 100.0 * (legacyBytes - compactBytes) / legacyBytes);
+        // keep both arrays and the shared data reachable until measured
+        System.out.println(compact.length + ids.length + timestamps.length > 0 ? "" : "-");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,22 @@
+-- Shows the plans behind the pgbench scripts; both should be an Index Scan on the V3 indexes
+-- with no Sort node and no Seq Scan.
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at
+FROM fx_deals
+WHERE from_currency = 'USD' AND to_currency = 'EUR'
+  AND deal_timestamp >= TIMESTAMP '2025-03-01' AND deal_timestamp < TIMESTAMP '2025-03-02'
+ORDER BY deal_timestamp, deal_id
+LIMIT 100;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*)
+FROM fx_deals
+WHERE from_currency = 'USD' AND to_currency = 'EUR'
+  AND deal_timestamp >= TIMESTAMP '2025-03-01' AND deal_timestamp < TIMESTAMP '2025-03-02';
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at
+FROM fx_deals
+WHERE deal_timestamp >= TIMESTAMP '2025-03-01' AND deal_timestamp < TIMESTAMP '2025-03-02'
+ORDER BY deal_timestamp, deal_id
+LIMIT 100;
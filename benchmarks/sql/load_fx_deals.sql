@@ -0,0 +1,25 @@
+-- Loads :rows synthetic deals (default 100M) into fx_deals of a scratch database that has been
+-- migrated by the application (so the V3 indexes exist), then refreshes planner statistics.
+--
+--   psql -d fx_deals_bench -v rows=100000000 -f benchmarks/sql/load_fx_deals.sql
+--
+-- 10 currencies give 90 pairs; timestamps are spread evenly over two years (2024-01-01 .. 2025-12-31),
+-- i.e. ~1,500 deals per pair and day at 100M rows.
+\if :{?rows}
+\else
+\set rows 100000000
+\endif
+
+SET maintenance_work_mem = '2GB';
+
+INSERT INTO fx_deals (deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at)
+SELECT 'BENCH' || g,
+       c.codes[1 + (g % 10)],
+       c.codes[1 + ((g % 10) + 1 + (g / 10) % 9) % 10],
+       TIMESTAMP '2024-01-01' + ((g * 631) % 63072000) * INTERVAL '1 second',
+       round((random() * 1000000)::numeric, 2),
+       now()
+FROM generate_series(1, :rows) AS g,
+     (SELECT ARRAY['USD', 'EUR', 'GBP', 'JPY', 'CHF', 'MAD', 'CAD', 'AUD', 'CNY', 'SEK'] AS codes) AS c;
+
+VACUUM ANALYZE fx_deals;
@@ -0,0 +1,107 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.config.QueryProperties;
+import bloomberg.fxdealswarehouse.dto.DealError;
+import bloomberg.fxdealswarehouse.dto.FxDealRequest;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import bloomberg.fxdealswarehouse.repository.FxDealRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// A chunk with a high share of rejected rows, processed the way the batch path does it (reason
+// codes as values in a DealChunkResult) against one importDeal call per row where each rejection
+// is an exception caught by the caller. The repository is an in-memory stub, so only validation,
+// duplicate detection and failure reporting are measured.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchRejectionBenchmark {
+    private static final int DUPLICATE_EVERY = 5;
+
+    @Param({"1000"})
+    int deals;
+    // every n-th deal fails validation; with DUPLICATE_EVERY about half the rows are rejected at 3
+    @Param({"3", "20"})
+    int invalidEvery;
+
+    private FxDealService fxDealService;
+    private List<FxDealRequest> chunk;
+
+    @Setup
+    public void setUp() {
+        chunk = BenchmarkDeals.requests("R", deals, invalidEvery);
+        Set<String> storedIds = new HashSet<>();
+        for (int i = 0; i < deals; i += DUPLICATE_EVERY) {
+            storedIds.add(chunk.get(i).getDealId());
+        }
+        ImportProperties importProperties = new ImportProperties();
+        ImportMetrics metrics = new ImportMetrics(new SimpleMeterRegistry());
+        FxDealRepository repository = storedDeals(storedIds);
+        fxDealService = new FxDealService(repository, importProperties, new DealIdBloomFilter(importProperties),
+                new DealCache(new QueryProperties(), new SimpleMeterRegistry()),
+                new DealWriteBuffer(repository, importProperties, metrics),
+                new DealJournal(importProperties, new SimpleMeterRegistry()), new DealValidator(), metrics,
+                new FailureLogSampler(importProperties), null);
+    }
+
+    @Benchmark
+    public void resultValues(Blackhole blackhole) {
+        DealChunkResult result = fxDealService.importChunk(chunk, 1);
+        for (int i = 0; i < result.size(); i++) {
+            DealError error = result.getFailedDeal(i);
+            blackhole.consume(error == null ? result.getImportedDeal(i) : error.getReasonCode());
+        }
+    }
+
+    @Benchmark
+    public void exceptionPerRow(Blackhole blackhole) {
+        for (FxDealRequest request : chunk) {
+            try {
+                blackhole.consume(fxDealService.importDeal(request));
+            } catch (RuntimeException e) {
+                blackhole.consume(e.getMessage());
+            }
+        }
+    }
+
+    // Inserts never change the stored set, so every invocation sees the same duplicates.
+    @SuppressWarnings("unchecked")
+    private static FxDealRepository storedDeals(Set<String> storedIds) {
+        return (FxDealRepository) Proxy.newProxyInstance(FxDealRepository.class.getClassLoader(),
+                new Class<?>[]{FxDealRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findExistingDealIds" -> {
+                        List<String> existing = new ArrayList<>();
+                        for (String dealId : (Collection<String>) args[0]) {
+                            if (storedIds.contains(dealId)) {
+                                existing.add(dealId);
+                            }
+                        }
+                        yield existing;
+                    }
+                    case "insertIfAbsent" -> !storedIds.contains(((FxDeal) args[0]).getDealId());
+                    case "insertAllIfAbsent" -> {
+                        Set<String> inserted = new HashSet<>();
+                        for (FxDeal deal : (List<FxDeal>) args[0]) {
+                            if (!storedIds.contains(deal.getDealId())) {
+                                inserted.add(deal.getDealId());
+                            }
+                        }
+                        yield inserted;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
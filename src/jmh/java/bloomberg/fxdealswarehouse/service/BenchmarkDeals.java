@@ -0,0 +1,31 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.dto.FxDealRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Deterministic deal data shared by the benchmarks; every invalidEvery-th deal fails validation.
+final class BenchmarkDeals {
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY", "CHF", "MAD", "CAD", "AUD"};
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private BenchmarkDeals() {
+    }
+
+    static List<FxDealRequest> requests(String idPrefix, int count, int invalidEvery) {
+        List<FxDealRequest> deals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            deals.add(request(idPrefix + i, i, invalidEvery > 0 && i % invalidEvery == invalidEvery - 1));
+        }
+        return deals;
+    }
+
+    static FxDealRequest request(String dealId, int i, boolean invalid) {
+        String from = CURRENCIES[i % CURRENCIES.length];
+        String to = invalid ? (i % 2 == 0 ? from : "XXQ") : CURRENCIES[(i + 1) % CURRENCIES.length];
+        return new FxDealRequest(dealId, from, to, BASE.plusSeconds(i), new BigDecimal((i % 100_000) + ".25"));
+    }
+}
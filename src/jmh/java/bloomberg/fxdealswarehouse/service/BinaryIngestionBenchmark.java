@@ -0,0 +1,65 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.dto.FxDealBatchRequest;
+import bloomberg.fxdealswarehouse.dto.FxDealRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The same batch decoded from the JSON body of /api/deals/batch and from the binary body of
+// /api/deals/binary, up to the list of FxDealRequest handed to the import pipeline.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryIngestionBenchmark {
+    @Param({"1000", "10000"})
+    private int deals;
+
+    private ObjectReader reader;
+    private byte[] jsonBody;
+    private byte[] binaryBody;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<FxDealRequest> batch = BenchmarkDeals.requests("BIN", deals, 0);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reader = objectMapper.readerFor(FxDealBatchRequest.class);
+        jsonBody = objectMapper.writeValueAsBytes(new FxDealBatchRequest(batch));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        BinaryDealCodec.writeHeader(out);
+        for (FxDealRequest deal : batch) {
+            BinaryDealCodec.write(out, deal);
+        }
+        out.flush();
+        binaryBody = bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<FxDealRequest> json() throws IOException {
+        FxDealBatchRequest request = reader.readValue(jsonBody);
+        return request.getDeals();
+    }
+
+    @Benchmark
+    public List<FxDealRequest> binary() throws IOException {
+        BinaryDealCodec.Reader dealReader = BinaryDealCodec.reader(new ByteArrayInputStream(binaryBody));
+        List<FxDealRequest> decoded = new ArrayList<>(deals);
+        for (FxDealRequest deal = dealReader.next(); deal != null; deal = dealReader.next()) {
+            decoded.add(deal);
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,94 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.FxDealsWarehouseApplication;
+import bloomberg.fxdealswarehouse.dto.FxDealBatchRequest;
+import bloomberg.fxdealswarehouse.dto.FxDealBatchResponse;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import bloomberg.fxdealswarehouse.repository.FxDealRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Default vs bulk datasource profile on a 100k-deal batch. Pool, batching and statement cache settings
+// only mean something against PostgreSQL, so this one needs a scratch database (see `make bench-bulk`):
+// BENCH_JDBC_URL, BENCH_JDBC_USER and BENCH_JDBC_PASSWORD, inherited by the forked JVM.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BulkProfileBenchmark {
+    private static final int DEALS = 100_000;
+
+    @Param({"default", "bulk"})
+    String profile;
+
+    ConfigurableApplicationContext context;
+    FxDealService fxDealService;
+    FxDealRepository fxDealRepository;
+    TransactionTemplate transactionTemplate;
+    JdbcTemplate jdbcTemplate;
+    FxDealBatchRequest request;
+    List<FxDeal> entities;
+    long nextId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(FxDealsWarehouseApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("prod", profile)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=" + env("BENCH_JDBC_URL", "jdbc:postgresql://localhost:5432/fx_deals_bench"),
+                        "spring.datasource.username=" + env("BENCH_JDBC_USER", "bloomberg"),
+                        "spring.datasource.password=" + env("BENCH_JDBC_PASSWORD", "bloomberg123"),
+                        "fx-deals.import.bloom-filter.enabled=false")
+                .run();
+        fxDealService = context.getBean(FxDealService.class);
+        fxDealRepository = context.getBean(FxDealRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    // fresh ids for every iteration so each run really inserts
+    @Setup(Level.Iteration)
+    public void prepare() {
+        jdbcTemplate.execute("TRUNCATE TABLE fx_deals");
+        String prefix = "BULK" + nextId++ + "-";
+        request = new FxDealBatchRequest(BenchmarkDeals.requests(prefix, DEALS, 0));
+        entities = new ArrayList<>(DEALS);
+        for (int i = 0; i < DEALS; i++) {
+            entities.add(fxDealService.toEntity(BenchmarkDeals.request(prefix + "J" + i, i, false)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public FxDealBatchResponse importDealsInBatch() {
+        return fxDealService.importDealsInBatch(request);
+    }
+
+    // JPA path: Hibernate JDBC batches (bulk profile) of persisted, not merged, deals
+    @Benchmark
+    public List<FxDeal> saveAll() {
+        return transactionTemplate.execute(status -> fxDealRepository.saveAll(entities));
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
@@ -0,0 +1,94 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.FxDealsWarehouseApplication;
+import bloomberg.fxdealswarehouse.dto.FxDealBatchRequest;
+import bloomberg.fxdealswarehouse.dto.FxDealBatchResponse;
+import bloomberg.fxdealswarehouse.dto.FxDealResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// End-to-end imports through the real Spring context against an embedded H2 database,
+// so the suite needs neither network nor a running PostgreSQL.
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ImportBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Application {
+        // "default" keeps the development SQL tracing, "prod" runs with the production logging profile
+        @Param({"default", "prod"})
+        String logging;
+
+        ConfigurableApplicationContext context;
+        FxDealService fxDealService;
+        JdbcTemplate jdbcTemplate;
+        long nextId;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = new SpringApplicationBuilder(FxDealsWarehouseApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles(logging)
+                    .properties(
+                            "spring.main.banner-mode=off",
+                            "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                            "spring.datasource.driver-class-name=org.h2.Driver",
+                            "spring.datasource.username=sa",
+                            "spring.datasource.password=",
+                            "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+                    .run();
+            fxDealService = context.getBean(FxDealService.class);
+            jdbcTemplate = context.getBean(JdbcTemplate.class);
+        }
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            jdbcTemplate.execute("TRUNCATE TABLE fx_deals");
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Batch {
+        @Param({"1000", "10000", "100000"})
+        int deals;
+        // every n-th deal is invalid, to exercise failure logging; 0 for none, 3 for a mostly-rejected batch
+        @Param({"0", "20", "3"})
+        int invalidEvery;
+        FxDealBatchRequest request;
+
+        // fresh deal ids for every invocation so each batch really inserts
+        @Setup(Level.Invocation)
+        public void prepare(Application application) {
+            request = new FxDealBatchRequest(
+                    BenchmarkDeals.requests("B" + application.nextId++ + "-", deals, invalidEvery));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public FxDealResponse importDeal(Application application) {
+        long id = application.nextId++;
+        return application.fxDealService.importDeal(BenchmarkDeals.request("S" + id, (int) id, false));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public FxDealBatchResponse importDealsInBatch(Application application, Batch batch) {
+        return application.fxDealService.importDealsInBatch(batch.request);
+    }
+}
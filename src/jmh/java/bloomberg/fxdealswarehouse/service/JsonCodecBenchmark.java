@@ -0,0 +1,75 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.config.QueryProperties;
+import bloomberg.fxdealswarehouse.dto.FxDealBatchRequest;
+import bloomberg.fxdealswarehouse.dto.FxDealBatchResponse;
+import bloomberg.fxdealswarehouse.dto.FxDealJsonCodec;
+import bloomberg.fxdealswarehouse.dto.FxDealRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Batch request parsing and batch response writing with Jackson bean binding ("bean") and with
+// FxDealJsonCodec ("codec"); gc.alloc.rate.norm from the gc profiler compares garbage per operation.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+    @Param({"1000", "10000"})
+    private int deals;
+    @Param({"bean", "codec"})
+    private String binding;
+
+    private ObjectReader reader;
+    private ObjectWriter writer;
+    private byte[] body;
+    private FxDealBatchResponse response;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (binding.equals("codec")) {
+            builder.modulesToInstall(FxDealJsonCodec.module());
+        }
+        ObjectMapper objectMapper = builder.build();
+        reader = objectMapper.readerFor(FxDealBatchRequest.class);
+        writer = objectMapper.writerFor(FxDealBatchResponse.class);
+        List<FxDealRequest> batch = BenchmarkDeals.requests("CODEC", deals, 0);
+        body = objectMapper.writeValueAsBytes(new FxDealBatchRequest(batch));
+
+        ImportProperties importProperties = new ImportProperties();
+        ImportMetrics metrics = new ImportMetrics(new SimpleMeterRegistry());
+        FxDealService fxDealService = new FxDealService(null, importProperties,
+                new DealIdBloomFilter(importProperties), new DealCache(new QueryProperties(), new SimpleMeterRegistry()),
+                new DealWriteBuffer(null, importProperties, metrics),
+                new DealJournal(importProperties, new SimpleMeterRegistry()), new DealValidator(), metrics,
+                new FailureLogSampler(importProperties), null);
+        response = new FxDealBatchResponse();
+        for (FxDealRequest deal : batch) {
+            response.getSuccessfulDeals().add(fxDealService.createResponse(fxDealService.toEntity(deal)));
+        }
+        response.setTotalRequested(deals);
+        response.setSuccessCount(deals);
+    }
+
+    @Benchmark
+    public FxDealBatchRequest readRequest() throws IOException {
+        return reader.readValue(body);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws IOException {
+        return writer.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,37 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.dto.FxDealBatchRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Request body parsing as done by the batch endpoint, with the application's ObjectMapper setup.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonDeserializationBenchmark {
+    @Param({"1000", "10000"})
+    private int deals;
+
+    private ObjectReader reader;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reader = objectMapper.readerFor(FxDealBatchRequest.class);
+        body = objectMapper.writeValueAsBytes(new FxDealBatchRequest(BenchmarkDeals.requests("JSON", deals, 0)));
+    }
+
+    @Benchmark
+    public FxDealBatchRequest deserializeBatch() throws IOException {
+        return reader.readValue(body);
+    }
+}
@@ -0,0 +1,39 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.config.QueryProperties;
+import bloomberg.fxdealswarehouse.dto.FxDealResponse;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Entity-to-response mapping done for every imported deal.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+    private FxDealService fxDealService;
+    private FxDeal deal;
+
+    @Setup
+    public void setUp() {
+        ImportProperties importProperties = new ImportProperties();
+        ImportMetrics metrics = new ImportMetrics(new SimpleMeterRegistry());
+        fxDealService = new FxDealService(null, importProperties, new DealIdBloomFilter(importProperties),
+                new DealCache(new QueryProperties(), new SimpleMeterRegistry()),
+                new DealWriteBuffer(null, importProperties, metrics),
+                new DealJournal(importProperties, new SimpleMeterRegistry()), new DealValidator(), metrics,
+                new FailureLogSampler(importProperties), null);
+        deal = fxDealService.toEntity(BenchmarkDeals.request("MAP1", 1, false));
+    }
+
+    @Benchmark
+    public FxDealResponse createResponse() {
+        return fxDealService.createResponse(deal);
+    }
+}
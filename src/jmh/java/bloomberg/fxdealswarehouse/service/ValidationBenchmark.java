@@ -0,0 +1,40 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.dto.FxDealRequest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Row validation throughput, from all-valid batches to bad-data-heavy ones.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+    private static final int DEALS = 10_000;
+
+    // every n-th deal is invalid; 0 means none
+    @Param({"0", "10", "2"})
+    private int invalidEvery;
+
+    private DealValidator validator;
+    private List<FxDealRequest> requests;
+
+    @Setup
+    public void setUp() {
+        validator = new DealValidator();
+        requests = BenchmarkDeals.requests("VALID", DEALS, invalidEvery);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEALS)
+    public void validate(Blackhole blackhole) {
+        for (FxDealRequest request : requests) {
+            blackhole.consume(validator.validate(request));
+        }
+    }
+}
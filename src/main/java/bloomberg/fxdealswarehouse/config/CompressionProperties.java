@@ -0,0 +1,40 @@
+package bloomberg.fxdealswarehouse.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+@ConfigurationProperties(prefix = "fx-deals.compression")
+public class CompressionProperties {
+
+    private boolean enabled = true;
+    // 1 (fastest) to 22; 3 is zstd's own default
+    private int zstdLevel = 3;
+    // smaller response bodies go out uncompressed; the codec framing would cost more than it saves
+    private DataSize minResponseSize = DataSize.ofKilobytes(2);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getZstdLevel() {
+        return zstdLevel;
+    }
+
+    public void setZstdLevel(int zstdLevel) {
+        this.zstdLevel = zstdLevel;
+    }
+
+    public DataSize getMinResponseSize() {
+        return minResponseSize;
+    }
+
+    public void setMinResponseSize(DataSize minResponseSize) {
+        this.minResponseSize = minResponseSize;
+    }
+}
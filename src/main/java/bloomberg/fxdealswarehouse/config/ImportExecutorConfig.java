@@ -0,0 +1,61 @@
+package bloomberg.fxdealswarehouse.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ImportExecutorConfig {
+    private final Logger logger = LoggerFactory.getLogger(ImportExecutorConfig.class);
+
+    // Virtual threads are looked up reflectively because the project still compiles for Java 17.
+    // Either way FxDealService never keeps more than fx-deals.import.parallelism chunks of one
+    // batch in flight, so the Hikari pool bounds the real database concurrency.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService importExecutor(ImportProperties importProperties) {
+        if (importProperties.isVirtualThreads()) {
+            try {
+                ExecutorService executor = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+                logger.info("Batch import chunks run on virtual threads");
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Virtual threads are not available on this JVM, falling back to a platform thread pool");
+            }
+        }
+        int threads = Math.max(1, importProperties.getParallelism());
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "deal-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        logger.info("Batch import chunks run on a pool of {} threads", threads);
+        return Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    // Background import jobs; the bounded queue keeps queued uploads from piling up in memory.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService jobExecutor(ImportProperties importProperties) {
+        ImportProperties.Jobs jobs = importProperties.getJobs();
+        int threads = Math.max(1, jobs.getConcurrency());
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "deal-import-job-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, jobs.getQueueCapacity())), threadFactory);
+    }
+}
@@ -0,0 +1,247 @@
+package bloomberg.fxdealswarehouse.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "fx-deals.import")
+public class ImportProperties {
+
+    private int chunkSize = 1000;
+    private int parallelism = 1;
+    private boolean virtualThreads = false;
+    // async timeout of POST /api/deals/stream, which runs for as long as the upload lasts
+    private Duration streamTimeout = Duration.ofHours(1);
+    private final BloomFilter bloomFilter = new BloomFilter();
+    private final Jobs jobs = new Jobs();
+    private final Logging logging = new Logging();
+    private final GroupCommit groupCommit = new GroupCommit();
+    private final Journal journal = new Journal();
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public Duration getStreamTimeout() {
+        return streamTimeout;
+    }
+
+    public void setStreamTimeout(Duration streamTimeout) {
+        this.streamTimeout = streamTimeout;
+    }
+
+    public BloomFilter getBloomFilter() {
+        return bloomFilter;
+    }
+
+    public Jobs getJobs() {
+        return jobs;
+    }
+
+    public Logging getLogging() {
+        return logging;
+    }
+
+    public GroupCommit getGroupCommit() {
+        return groupCommit;
+    }
+
+    public Journal getJournal() {
+        return journal;
+    }
+
+    public static class BloomFilter {
+        private boolean enabled = true;
+        private long expectedInsertions = 10_000_000;
+        private double falsePositiveRate = 0.01;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getExpectedInsertions() {
+            return expectedInsertions;
+        }
+
+        public void setExpectedInsertions(long expectedInsertions) {
+            this.expectedInsertions = expectedInsertions;
+        }
+
+        public double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+
+        public void setFalsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+        }
+    }
+
+    public static class Jobs {
+        private int concurrency = 2;
+        private int queueCapacity = 16;
+        // how often an instance refreshes the heartbeat of the jobs it queued or is running
+        private Duration heartbeatInterval = Duration.ofSeconds(30);
+        // QUEUED/RUNNING jobs without a heartbeat for this long are marked INTERRUPTED by any instance
+        private Duration staleAfter = Duration.ofMinutes(5);
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(int concurrency) {
+            this.concurrency = concurrency;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public Duration getStaleAfter() {
+            return staleAfter;
+        }
+
+        public void setStaleAfter(Duration staleAfter) {
+            this.staleAfter = staleAfter;
+        }
+    }
+
+    public static class Logging {
+        private int failureSamplesPerSecond = 10;
+
+        public int getFailureSamplesPerSecond() {
+            return failureSamplesPerSecond;
+        }
+
+        public void setFailureSamplesPerSecond(int failureSamplesPerSecond) {
+            this.failureSamplesPerSecond = failureSamplesPerSecond;
+        }
+    }
+
+    public static class GroupCommit {
+        private boolean enabled = false;
+        private int maxBatchSize = 500;
+        private Duration maxDelay = Duration.ofMillis(5);
+        private int queueCapacity = 10_000;
+        // longest a caller waits for the commit holding its deal before failing as a timeout
+        private Duration commitTimeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getCommitTimeout() {
+            return commitTimeout;
+        }
+
+        public void setCommitTimeout(Duration commitTimeout) {
+            this.commitTimeout = commitTimeout;
+        }
+    }
+
+    public static class Journal {
+        private boolean enabled = false;
+        private String directory = "journal";
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        // read by DealJournalReplayer's @Scheduled delay
+        private Duration replayInterval = Duration.ofSeconds(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public Duration getReplayInterval() {
+            return replayInterval;
+        }
+
+        public void setReplayInterval(Duration replayInterval) {
+            this.replayInterval = replayInterval;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package bloomberg.fxdealswarehouse.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+
+// Logs the connection pool, JDBC batching and statement caching settings the application actually
+// started with, and warns about combinations that keep bulk imports from using them.
+@Component
+public class JdbcSettingsReport {
+    private final Logger logger = LoggerFactory.getLogger(JdbcSettingsReport.class);
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ImportProperties importProperties;
+
+    public JdbcSettingsReport(DataSource dataSource, EntityManagerFactory entityManagerFactory,
+                              ImportProperties importProperties) {
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.importProperties = importProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        HikariDataSource hikari = unwrap();
+        Map<String, Object> jpa = entityManagerFactory.getProperties();
+        String batchSize = setting(jpa, "hibernate.jdbc.batch_size", "off");
+        int parallelism = Math.max(1, importProperties.getParallelism());
+        int jobs = Math.max(1, importProperties.getJobs().getConcurrency());
+        if (hikari == null) {
+            logger.info("JDBC settings: pool=unknown hibernate.jdbc.batch_size={} order_inserts={} import.parallelism={}",
+                    batchSize, setting(jpa, "hibernate.order_inserts", "false"), parallelism);
+            return;
+        }
+        Properties driver = hikari.getDataSourceProperties();
+        logger.info("JDBC settings: pool.max={} pool.minIdle={} connectionTimeoutMs={} " +
+                        "hibernate.jdbc.batch_size={} order_inserts={} reWriteBatchedInserts={} " +
+                        "prepareThreshold={} preparedStatementCacheQueries={} import.parallelism={} import.chunkSize={}",
+                hikari.getMaximumPoolSize(), hikari.getMinimumIdle(), hikari.getConnectionTimeout(),
+                batchSize, setting(jpa, "hibernate.order_inserts", "false"),
+                driver.getProperty("reWriteBatchedInserts", "false"),
+                driver.getProperty("prepareThreshold", "driver default (5)"),
+                driver.getProperty("preparedStatementCacheQueries", "driver default (256)"),
+                parallelism, importProperties.getChunkSize());
+        // every in-flight chunk of every running job holds a connection while it writes
+        if (parallelism * jobs >= hikari.getMaximumPoolSize()) {
+            logger.warn("fx-deals.import.parallelism ({}) x jobs.concurrency ({}) reaches the pool size ({}); " +
+                    "single-deal imports and queries will wait for connections during batch imports",
+                    parallelism, jobs, hikari.getMaximumPoolSize());
+        }
+    }
+
+    private HikariDataSource unwrap() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private static String setting(Map<String, Object> properties, String name, String fallback) {
+        Object value = properties.get(name);
+        return value == null ? fallback : value.toString();
+    }
+}
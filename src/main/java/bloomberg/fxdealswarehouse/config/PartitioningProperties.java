@@ -0,0 +1,94 @@
+package bloomberg.fxdealswarehouse.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+@Component
+@ConfigurationProperties(prefix = "fx-deals.partitioning")
+public class PartitioningProperties {
+
+    private boolean enabled = false;
+    private Interval interval = Interval.MONTH;
+    // partitions kept ready ahead of the current one
+    private int precreate = 3;
+    // periods of history the partitioning migration creates partitions for; older rows stay in the default one
+    private int backfill = 24;
+    // full periods kept attached before the current one; 0 never detaches
+    private int retention = 0;
+    private String cron = "0 5 0 * * *";
+
+    public enum Interval {
+        DAY(ChronoUnit.DAYS),
+        MONTH(ChronoUnit.MONTHS);
+
+        private final ChronoUnit unit;
+
+        Interval(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public LocalDateTime periodStart(LocalDateTime time) {
+            LocalDateTime day = time.truncatedTo(ChronoUnit.DAYS);
+            return this == MONTH ? day.withDayOfMonth(1) : day;
+        }
+
+        public LocalDateTime plus(LocalDateTime time, long periods) {
+            return time.plus(periods, unit);
+        }
+
+        public String sqlName() {
+            return name().toLowerCase();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Interval getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Interval interval) {
+        this.interval = interval;
+    }
+
+    public int getPrecreate() {
+        return precreate;
+    }
+
+    public void setPrecreate(int precreate) {
+        this.precreate = precreate;
+    }
+
+    public int getBackfill() {
+        return backfill;
+    }
+
+    public void setBackfill(int backfill) {
+        this.backfill = backfill;
+    }
+
+    public int getRetention() {
+        return retention;
+    }
+
+    public void setRetention(int retention) {
+        this.retention = retention;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+}
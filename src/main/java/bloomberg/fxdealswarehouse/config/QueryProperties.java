@@ -0,0 +1,75 @@
+package bloomberg.fxdealswarehouse.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "fx-deals.query")
+public class QueryProperties {
+
+    private int defaultPageSize = 100;
+    private int maxPageSize = 1000;
+    // async timeout of GET /api/deals/export, which streams the whole matching table
+    private Duration exportTimeout = Duration.ofHours(1);
+    private final Cache cache = new Cache();
+
+    public int getDefaultPageSize() {
+        return defaultPageSize;
+    }
+
+    public void setDefaultPageSize(int defaultPageSize) {
+        this.defaultPageSize = defaultPageSize;
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    public Duration getExportTimeout() {
+        return exportTimeout;
+    }
+
+    public void setExportTimeout(Duration exportTimeout) {
+        this.exportTimeout = exportTimeout;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public static class Cache {
+        private boolean enabled = true;
+        private long maximumSize = 100_000;
+        private Duration expireAfterWrite = Duration.ofMinutes(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+    }
+}
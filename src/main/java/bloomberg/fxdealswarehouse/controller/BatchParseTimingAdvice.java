@@ -0,0 +1,44 @@
+package bloomberg.fxdealswarehouse.controller;
+
+import bloomberg.fxdealswarehouse.dto.FxDealBatchRequest;
+import bloomberg.fxdealswarehouse.service.ImportMetrics;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+// Times the JSON binding of batch bodies as the import "parse" stage; the message converter
+// runs between beforeBodyRead and afterBodyRead on the same thread.
+@ControllerAdvice
+public class BatchParseTimingAdvice extends RequestBodyAdviceAdapter {
+    private static final ThreadLocal<long[]> PARSE_START = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final ImportMetrics metrics;
+
+    public BatchParseTimingAdvice(ImportMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == FxDealBatchRequest.class;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        PARSE_START.get()[0] = metrics.start();
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        metrics.recordStage(ImportMetrics.Stage.PARSE, PARSE_START.get()[0]);
+        return body;
+    }
+}
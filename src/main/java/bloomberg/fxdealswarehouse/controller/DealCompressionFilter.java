@@ -0,0 +1,582 @@
+package bloomberg.fxdealswarehouse.controller;
+
+import bloomberg.fxdealswarehouse.config.CompressionProperties;
+import bloomberg.fxdealswarehouse.exception.ContentDecodingException;
+import bloomberg.fxdealswarehouse.service.ImportMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Content-Encoding for the deal endpoints. gzip and zstd request bodies are decoded as the handler
+// reads them, and responses are encoded as they are written when Accept-Encoding allows it, so no
+// body is ever buffered whole; only the first min-response-size bytes are held back to decide whether
+// the body is worth compressing at all. Streaming endpoints read and write on a separate thread, so for them
+// the encoder is closed on the async dispatch that ends the request. Per body, the compression ratio
+// and the thread CPU time spent in the codec are recorded through ImportMetrics.
+@Component
+public class DealCompressionFilter extends OncePerRequestFilter {
+    static final String GZIP = "gzip";
+    static final String ZSTD = "zstd";
+    private static final String DEALS_PATH = "/api/deals";
+    private static final String REQUEST_ATTRIBUTE = DealCompressionFilter.class.getName() + ".request";
+    private static final String RESPONSE_ATTRIBUTE = DealCompressionFilter.class.getName() + ".response";
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean THREAD_CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported();
+
+    private final CompressionProperties properties;
+    private final ImportMetrics metrics;
+    private final ObjectMapper objectMapper;
+
+    public DealCompressionFilter(CompressionProperties properties, ImportMetrics metrics, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.equals(DEALS_PATH) && !path.startsWith(DEALS_PATH + "/");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            CompressingResponse compressing = (CompressingResponse) request.getAttribute(RESPONSE_ATTRIBUTE);
+            try {
+                chain.doFilter(request, compressing != null ? compressing : response);
+            } finally {
+                if (!request.isAsyncStarted()) {
+                    finish(request);
+                }
+            }
+            return;
+        }
+
+        DecompressingRequest decompressing = null;
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding != null && !contentEncoding.isBlank()
+                && !contentEncoding.trim().equalsIgnoreCase("identity")) {
+            String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+            if (!encoding.equals(GZIP) && !encoding.equals(ZSTD)) {
+                response.setHeader(HttpHeaders.ACCEPT_ENCODING, GZIP + ", " + ZSTD);
+                reject(response, HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Unsupported Content-Encoding",
+                        "Unsupported Content-Encoding: " + contentEncoding);
+                return;
+            }
+            decompressing = new DecompressingRequest(request, encoding);
+            try {
+                // opening the decoder reads the gzip header, so a corrupt one is caught before the handler runs
+                decompressing.getInputStream();
+            } catch (ContentDecodingException e) {
+                decompressing.finish();
+                reject(response, HttpStatus.BAD_REQUEST, "Malformed Content-Encoding", e.getMessage());
+                return;
+            }
+            request.setAttribute(REQUEST_ATTRIBUTE, decompressing);
+        }
+        String accepted = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        CompressingResponse compressing = null;
+        if (accepted != null) {
+            compressing = new CompressingResponse(request, response, accepted);
+            request.setAttribute(RESPONSE_ATTRIBUTE, compressing);
+        }
+
+        try {
+            chain.doFilter(decompressing != null ? decompressing : request,
+                    compressing != null ? compressing : response);
+        } finally {
+            // streaming endpoints keep reading and writing after this dispatch returns
+            if (!request.isAsyncStarted()) {
+                finish(request);
+            }
+        }
+    }
+
+    private void finish(HttpServletRequest request) throws IOException {
+        DecompressingRequest decompressing = (DecompressingRequest) request.getAttribute(REQUEST_ATTRIBUTE);
+        CompressingResponse compressing = (CompressingResponse) request.getAttribute(RESPONSE_ATTRIBUTE);
+        request.removeAttribute(REQUEST_ATTRIBUTE);
+        request.removeAttribute(RESPONSE_ATTRIBUTE);
+        if (decompressing != null) {
+            decompressing.finish();
+        }
+        if (compressing != null) {
+            compressing.finish();
+        }
+    }
+
+    // zstd over gzip when both are acceptable; null for identity. A coding listed with q=0 is refused even
+    // when "*" is also sent, and "*" alone stands for gzip, which every client that sends it can decode.
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        Map<String, Boolean> acceptable = new HashMap<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = true;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        accepted = Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        accepted = false;
+                    }
+                }
+            }
+            acceptable.put(coding, accepted);
+        }
+        if (acceptable.getOrDefault(ZSTD, false)) {
+            return ZSTD;
+        }
+        return acceptable.getOrDefault(GZIP, acceptable.getOrDefault("*", false)) ? GZIP : null;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String reason, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        Map<String, Object> error = new HashMap<>();
+        error.put("timestamp", LocalDateTime.now());
+        error.put("status", status.value());
+        error.put("error", reason);
+        error.put("message", message);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static long cpuTime() {
+        return THREAD_CPU_TIME ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private final class DecompressingRequest extends HttpServletRequestWrapper {
+        private final String encoding;
+        private ServletInputStream source;
+        private CountingInputStream compressed;
+        private InputStream decoder;
+        private ServletInputStream stream;
+        private long uncompressedBytes;
+        private long cpuNanos;
+        private boolean finished;
+
+        private DecompressingRequest(HttpServletRequest request, String encoding) {
+            super(request);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                source = super.getInputStream();
+                compressed = new CountingInputStream(source);
+                long start = cpuTime();
+                try {
+                    decoder = encoding.equals(ZSTD) ? new ZstdInputStream(compressed) : new GZIPInputStream(compressed);
+                } catch (IOException e) {
+                    throw decodingFailure(e);
+                } finally {
+                    cpuNanos += cpuTime() - start;
+                }
+                stream = new ServletInputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        byte[] one = new byte[1];
+                        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        if (decoder == null) {
+                            throw new IOException("Request body has already been closed");
+                        }
+                        long start = cpuTime();
+                        int read;
+                        try {
+                            read = decoder.read(buffer, offset, length);
+                        } catch (IOException e) {
+                            throw decodingFailure(e);
+                        } finally {
+                            cpuNanos += cpuTime() - start;
+                        }
+                        if (read < 0) {
+                            finished = true;
+                        } else {
+                            uncompressedBytes += read;
+                        }
+                        return read;
+                    }
+
+                    @Override
+                    public boolean isFinished() {
+                        return finished;
+                    }
+
+                    // decoded bytes become readable as the compressed ones arrive
+                    @Override
+                    public boolean isReady() {
+                        return source.isReady();
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener listener) {
+                        source.setReadListener(listener);
+                    }
+                };
+            }
+            return stream;
+        }
+
+        // the body is decoded, so its encoding and length no longer describe what the handler reads
+        @Override
+        public String getHeader(String name) {
+            return isEncodingHeader(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isEncodingHeader(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = new ArrayList<>();
+            for (Enumeration<String> all = super.getHeaderNames(); all.hasMoreElements(); ) {
+                String name = all.nextElement();
+                if (!isEncodingHeader(name)) {
+                    names.add(name);
+                }
+            }
+            return Collections.enumeration(names);
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        private boolean isEncodingHeader(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+
+        private ContentDecodingException decodingFailure(IOException e) {
+            return e instanceof ContentDecodingException decoding ? decoding
+                    : new ContentDecodingException("Request body is not valid " + encoding + ": " + e.getMessage(), e);
+        }
+
+        // Releases the decoder's native zstd buffers or gzip Inflater and records the body's metrics.
+        private void finish() throws IOException {
+            if (compressed == null) {
+                return;
+            }
+            CountingInputStream counted = compressed;
+            compressed = null;
+            if (decoder != null) {
+                try {
+                    decoder.close();
+                } finally {
+                    decoder = null;
+                    metrics.recordCompression("request", encoding, counted.count, uncompressedBytes, cpuNanos);
+                }
+            }
+        }
+    }
+
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+        private final HttpServletRequest request;
+        private final String encoding;
+        private final long minSize;
+        private ServletOutputStream target;
+        // body held back until it reaches minSize; null once the response is encoded or passed through
+        private ByteArrayOutputStream pending;
+        private CountingOutputStream compressed;
+        private OutputStream encoder;
+        private ServletOutputStream stream;
+        private PrintWriter writer;
+        private long uncompressedBytes;
+        private long cpuNanos;
+
+        private CompressingResponse(HttpServletRequest request, HttpServletResponse response, String encoding) {
+            super(response);
+            this.request = request;
+            this.encoding = encoding;
+            this.minSize = properties.getMinResponseSize().toBytes();
+        }
+
+        // Content-Encoding is only set once minSize bytes are written, so empty, error and other small
+        // responses go out as is.
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            return encodedStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (stream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                writer = new PrintWriter(new OutputStreamWriter(encodedStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            } else if (stream != null) {
+                stream.flush();
+            }
+            // committing while undecided would send the headers before Content-Encoding is known
+            if (pending == null) {
+                super.flushBuffer();
+            }
+        }
+
+        private ServletOutputStream encodedStream() throws IOException {
+            if (stream != null) {
+                return stream;
+            }
+            target = super.getOutputStream();
+            pending = new ByteArrayOutputStream();
+            stream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] buffer, int offset, int length) throws IOException {
+                    if (pending != null) {
+                        pending.write(buffer, offset, length);
+                        if (pending.size() >= minSize) {
+                            start(true);
+                        }
+                    } else if (encoder != null) {
+                        encode(buffer, offset, length);
+                    } else if (compressed == null) {
+                        target.write(buffer, offset, length);
+                    } else {
+                        throw new IOException("Compressed response has already been finished");
+                    }
+                }
+
+                // Flushes are held back while the body is still below minSize, except on streaming
+                // endpoints, whose total size is unknown and whose rows must reach the client now.
+                @Override
+                public void flush() throws IOException {
+                    if (pending != null) {
+                        if (!request.isAsyncStarted()) {
+                            return;
+                        }
+                        start(true);
+                    }
+                    if (encoder != null) {
+                        long start = cpuTime();
+                        encoder.flush();
+                        cpuNanos += cpuTime() - start;
+                    } else {
+                        target.flush();
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    finish();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return target.isReady();
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    target.setWriteListener(listener);
+                }
+            };
+            return stream;
+        }
+
+        // Sends the held back bytes, through the encoder when compressing and the headers are still open.
+        private void start(boolean compress) throws IOException {
+            byte[] held = pending.toByteArray();
+            pending = null;
+            super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (!compress || isCommitted()) {
+                target.write(held);
+                return;
+            }
+            super.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+            compressed = new CountingOutputStream(target);
+            long start = cpuTime();
+            // sync flush, so each flushed NDJSON chunk reaches the client straight away
+            encoder = encoding.equals(ZSTD)
+                    ? new ZstdOutputStream(compressed, properties.getZstdLevel())
+                    : new GZIPOutputStream(compressed, true);
+            cpuNanos += cpuTime() - start;
+            encode(held, 0, held.length);
+        }
+
+        private void encode(byte[] buffer, int offset, int length) throws IOException {
+            long start = cpuTime();
+            encoder.write(buffer, offset, length);
+            cpuNanos += cpuTime() - start;
+            uncompressedBytes += length;
+        }
+
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (pending != null) {
+                start(false);
+                return;
+            }
+            if (encoder == null) {
+                return;
+            }
+            OutputStream closing = encoder;
+            encoder = null;
+            long start = cpuTime();
+            // writes the trailer; CountingOutputStream keeps the container's stream open
+            closing.close();
+            cpuNanos += cpuTime() - start;
+            metrics.recordCompression("response", encoding, compressed.count, uncompressedBytes, cpuNanos);
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = in.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        // closing the decoder releases its own resources; the container owns the request stream
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            out.write(buffer, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -1,48 +1,154 @@
 package bloomberg.fxdealswarehouse.controller;
 
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.config.QueryProperties;
+import bloomberg.fxdealswarehouse.dto.BatchResponseMode;
+import bloomberg.fxdealswarehouse.dto.BulkLoadResponse;
+import bloomberg.fxdealswarehouse.dto.DealIdFilterStats;
+import bloomberg.fxdealswarehouse.dto.DealQuery;
+import bloomberg.fxdealswarehouse.dto.ExportFormat;
 import bloomberg.fxdealswarehouse.dto.FxDealBatchRequest;
 import bloomberg.fxdealswarehouse.dto.FxDealBatchResponse;
+import bloomberg.fxdealswarehouse.dto.FxDealPage;
 import bloomberg.fxdealswarehouse.dto.FxDealRequest;
 import bloomberg.fxdealswarehouse.dto.FxDealResponse;
+import bloomberg.fxdealswarehouse.dto.ImportJobResponse;
 import bloomberg.fxdealswarehouse.entity.FxDeal;
+import bloomberg.fxdealswarehouse.service.BinaryDealCodec;
+import bloomberg.fxdealswarehouse.service.BinaryDealImporter;
+import bloomberg.fxdealswarehouse.service.BulkDealLoader;
+import bloomberg.fxdealswarehouse.service.DealExporter;
+import bloomberg.fxdealswarehouse.service.FxDealQueryService;
 import bloomberg.fxdealswarehouse.service.FxDealService;
+import bloomberg.fxdealswarehouse.service.ImportJobService;
+import bloomberg.fxdealswarehouse.service.NdjsonDealImporter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 
 @RestController
 @RequestMapping("/api/deals")
 public class FxDealController {
     private final Logger logger = LoggerFactory.getLogger(FxDealController.class);
     private final FxDealService fxDealService;
-    public FxDealController(FxDealService fxDealService) {
+    private final NdjsonDealImporter ndjsonDealImporter;
+    private final ImportJobService importJobService;
+    private final FxDealQueryService fxDealQueryService;
+    private final DealExporter dealExporter;
+    private final BulkDealLoader bulkDealLoader;
+    private final BinaryDealImporter binaryDealImporter;
+    private final ImportProperties importProperties;
+    private final QueryProperties queryProperties;
+    public FxDealController(FxDealService fxDealService, NdjsonDealImporter ndjsonDealImporter,
+                            ImportJobService importJobService, FxDealQueryService fxDealQueryService,
+                            DealExporter dealExporter, BulkDealLoader bulkDealLoader,
+                            BinaryDealImporter binaryDealImporter, ImportProperties importProperties,
+                            QueryProperties queryProperties) {
         this.fxDealService = fxDealService;
+        this.ndjsonDealImporter = ndjsonDealImporter;
+        this.importJobService = importJobService;
+        this.fxDealQueryService = fxDealQueryService;
+        this.dealExporter = dealExporter;
+        this.bulkDealLoader = bulkDealLoader;
+        this.binaryDealImporter = binaryDealImporter;
+        this.importProperties = importProperties;
+        this.queryProperties = queryProperties;
     }
     @PostMapping
     public ResponseEntity<FxDealResponse> importDeal(@Valid @RequestBody FxDealRequest request) {
-        logger.info("Import request received: {}", request.getDealId());
+        logger.debug("Import request received: {}", request.getDealId());
         FxDealResponse response = fxDealService.importDeal(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        return new ResponseEntity<>(response, response.isPending() ? HttpStatus.ACCEPTED : HttpStatus.CREATED);
     }
     @PostMapping("/batch")
-    public ResponseEntity<FxDealBatchResponse> importBatch(@Valid @RequestBody FxDealBatchRequest request) {
+    public ResponseEntity<FxDealBatchResponse> importBatch(@Valid @RequestBody FxDealBatchRequest request,
+                                                           @RequestParam(name = "response", defaultValue = "full") String responseMode) {
+        BatchResponseMode mode = BatchResponseMode.fromParameter(responseMode);
         logger.info("Batch import request received: {}", request.getDeals().size());
-        FxDealBatchResponse response = fxDealService.importDealsInBatch(request);
+        FxDealBatchResponse response = fxDealService.importDealsInBatch(request, mode);
+        return new ResponseEntity<>(response, batchStatus(response));
+    }
+    @PostMapping(value = "/binary", consumes = BinaryDealCodec.MEDIA_TYPE)
+    public ResponseEntity<FxDealBatchResponse> importBinary(
+            InputStream body, @RequestParam(name = "response", defaultValue = "full") String responseMode)
+            throws IOException {
+        BatchResponseMode mode = BatchResponseMode.fromParameter(responseMode);
+        logger.info("Binary import request received");
+        FxDealBatchResponse response = binaryDealImporter.importStream(body, mode);
+        return new ResponseEntity<>(response, batchStatus(response));
+    }
+    private HttpStatus batchStatus(FxDealBatchResponse response) {
         if(response.getFailureCount()>0 &&response.getSuccessCount()>0){
-            return new ResponseEntity<>(response,HttpStatus.MULTI_STATUS);
+            return HttpStatus.MULTI_STATUS;
         }
         if (response.getFailureCount() == 0) {
-            return new ResponseEntity<>(response, HttpStatus.CREATED);
+            return HttpStatus.CREATED;
         }
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        return HttpStatus.BAD_REQUEST;
+    }
+    @PostMapping("/jobs")
+    public ResponseEntity<ImportJobResponse> submitBatchJob(@Valid @RequestBody FxDealBatchRequest request) {
+        logger.info("Batch import job received: {}", request.getDeals().size());
+        ImportJobResponse job = importJobService.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/deals/jobs/" + job.getJobId()))
+                .body(job);
+    }
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ImportJobResponse> getBatchJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(importJobService.getJob(jobId));
+    }
+    // WebAsyncTasks rather than StreamingResponseBody, so the long timeouts of /stream and /export apply to
+    // those endpoints only.
+    @PostMapping(value = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> importStream(InputStream body, HttpServletResponse response) {
+        logger.info("Streaming import request received");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(importProperties.getStreamTimeout().toMillis(), () -> {
+            ndjsonDealImporter.importStream(body, response.getOutputStream());
+            return null;
+        });
+    }
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkLoadResponse> bulkLoad(InputStream body) throws IOException {
+        logger.info("Bulk load request received");
+        return ResponseEntity.ok(bulkDealLoader.load(body));
     }
     @GetMapping
-    public ResponseEntity<List<FxDeal>> getAllDeals(){
-        return ResponseEntity.ok(fxDealService.getAllDeals());
+    public ResponseEntity<FxDealPage> getDeals(DealQuery query){
+        return ResponseEntity.ok(fxDealQueryService.findDeals(query));
+    }
+    @GetMapping("/{dealId}")
+    public ResponseEntity<FxDeal> getDeal(@PathVariable String dealId) {
+        return ResponseEntity.ok(fxDealQueryService.findDeal(dealId));
+    }
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportDeals(DealQuery query, @RequestParam(defaultValue = "ndjson") String format,
+                                          HttpServletResponse response) {
+        ExportFormat exportFormat = ExportFormat.fromParameter(format);
+        dealExporter.validate(query);
+        logger.info("Export request received as {}", exportFormat);
+        response.setContentType(exportFormat.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=fx-deals." + exportFormat.getExtension());
+        return new WebAsyncTask<>(queryProperties.getExportTimeout().toMillis(), () -> {
+            dealExporter.export(query, exportFormat, response.getOutputStream());
+            return null;
+        });
+    }
+    @GetMapping("/dedup-filter")
+    public ResponseEntity<DealIdFilterStats> getDealIdFilterStats() {
+        return ResponseEntity.ok(fxDealService.getDealIdFilterStats());
     }
 }
@@ -0,0 +1,37 @@
+package bloomberg.fxdealswarehouse.dto;
+
+import bloomberg.fxdealswarehouse.exception.InvalidQueryException;
+
+// How much of a batch result is sent back. Lists left out are not built at all.
+public enum BatchResponseMode {
+    FULL("full", true, true),
+    FAILURES("failures", false, true),
+    SUMMARY("summary", false, false);
+
+    private final String parameter;
+    private final boolean successfulDeals;
+    private final boolean failedDeals;
+
+    BatchResponseMode(String parameter, boolean successfulDeals, boolean failedDeals) {
+        this.parameter = parameter;
+        this.successfulDeals = successfulDeals;
+        this.failedDeals = failedDeals;
+    }
+
+    public boolean includesSuccessfulDeals() {
+        return successfulDeals;
+    }
+
+    public boolean includesFailedDeals() {
+        return failedDeals;
+    }
+
+    public static BatchResponseMode fromParameter(String mode) {
+        for (BatchResponseMode value : values()) {
+            if (value.parameter.equalsIgnoreCase(mode)) {
+                return value;
+            }
+        }
+        throw new InvalidQueryException("Unsupported response mode: " + mode);
+    }
+}
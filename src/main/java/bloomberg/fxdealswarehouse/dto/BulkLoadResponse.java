@@ -0,0 +1,56 @@
+package bloomberg.fxdealswarehouse.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkLoadResponse {
+    private int totalRequested;
+    private int successCount;
+    private int failureCount;
+    private long elapsedMillis;
+    private List<DealError> failedDeals;
+
+    public BulkLoadResponse() {
+        this.failedDeals = new ArrayList<>();
+    }
+
+    public int getTotalRequested() {
+        return totalRequested;
+    }
+
+    public void setTotalRequested(int totalRequested) {
+        this.totalRequested = totalRequested;
+    }
+
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    public void setSuccessCount(int successCount) {
+        this.successCount = successCount;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public void setFailureCount(int failureCount) {
+        this.failureCount = failureCount;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<DealError> getFailedDeals() {
+        return failedDeals;
+    }
+
+    public void setFailedDeals(List<DealError> failedDeals) {
+        this.failedDeals = failedDeals;
+    }
+}
@@ -1,8 +1,15 @@
 package bloomberg.fxdealswarehouse.dto;
 
+// A rejected row. reasonCode is machine-readable: DUPLICATE, MALFORMED, REJECTED (the database
+// refused the row) or a validation violation such as SAME_CURRENCY; errorMessage is the
+// human-readable form.
 public class DealError {
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String MALFORMED = "MALFORMED";
+    public static final String REJECTED = "REJECTED";
 
     private String dealId;
+    private String reasonCode;
     private String errorMessage;
     private int rowNumber;
 
@@ -15,6 +22,13 @@ public class DealError {
         this.rowNumber = rowNumber;
     }
 
+    public DealError(String dealId, String reasonCode, String errorMessage, int rowNumber) {
+        this.dealId = dealId;
+        this.reasonCode = reasonCode;
+        this.errorMessage = errorMessage;
+        this.rowNumber = rowNumber;
+    }
+
     public String getDealId() {
         return dealId;
     }
@@ -23,6 +37,14 @@ public class DealError {
         this.dealId = dealId;
     }
 
+    public String getReasonCode() {
+        return reasonCode;
+    }
+
+    public void setReasonCode(String reasonCode) {
+        this.reasonCode = reasonCode;
+    }
+
     public String getErrorMessage() {
         return errorMessage;
     }
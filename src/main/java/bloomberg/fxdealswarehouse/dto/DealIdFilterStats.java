@@ -0,0 +1,112 @@
+package bloomberg.fxdealswarehouse.dto;
+
+public class DealIdFilterStats {
+    private boolean enabled;
+    private boolean ready;
+    private long bitCount;
+    private int hashFunctions;
+    private long approximateSizeBytes;
+    private long insertions;
+    private long expectedInsertions;
+    private double configuredFalsePositiveRate;
+    private double estimatedFalsePositiveRate;
+    private long probableHits;
+    private long definiteMisses;
+    private long falsePositives;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public void setBitCount(long bitCount) {
+        this.bitCount = bitCount;
+    }
+
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    public void setHashFunctions(int hashFunctions) {
+        this.hashFunctions = hashFunctions;
+    }
+
+    public long getApproximateSizeBytes() {
+        return approximateSizeBytes;
+    }
+
+    public void setApproximateSizeBytes(long approximateSizeBytes) {
+        this.approximateSizeBytes = approximateSizeBytes;
+    }
+
+    public long getInsertions() {
+        return insertions;
+    }
+
+    public void setInsertions(long insertions) {
+        this.insertions = insertions;
+    }
+
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public void setExpectedInsertions(long expectedInsertions) {
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public double getConfiguredFalsePositiveRate() {
+        return configuredFalsePositiveRate;
+    }
+
+    public void setConfiguredFalsePositiveRate(double configuredFalsePositiveRate) {
+        this.configuredFalsePositiveRate = configuredFalsePositiveRate;
+    }
+
+    public double getEstimatedFalsePositiveRate() {
+        return estimatedFalsePositiveRate;
+    }
+
+    public void setEstimatedFalsePositiveRate(double estimatedFalsePositiveRate) {
+        this.estimatedFalsePositiveRate = estimatedFalsePositiveRate;
+    }
+
+    public long getProbableHits() {
+        return probableHits;
+    }
+
+    public void setProbableHits(long probableHits) {
+        this.probableHits = probableHits;
+    }
+
+    public long getDefiniteMisses() {
+        return definiteMisses;
+    }
+
+    public void setDefiniteMisses(long definiteMisses) {
+        this.definiteMisses = definiteMisses;
+    }
+
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+
+    public void setFalsePositives(long falsePositives) {
+        this.falsePositives = falsePositives;
+    }
+}
@@ -0,0 +1,83 @@
+package bloomberg.fxdealswarehouse.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class DealQuery {
+    private String fromCurrency;
+    private String toCurrency;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime timestampFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime timestampTo;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private String cursor;
+    private Integer limit;
+
+    public String getFromCurrency() {
+        return fromCurrency;
+    }
+
+    public void setFromCurrency(String fromCurrency) {
+        this.fromCurrency = fromCurrency;
+    }
+
+    public String getToCurrency() {
+        return toCurrency;
+    }
+
+    public void setToCurrency(String toCurrency) {
+        this.toCurrency = toCurrency;
+    }
+
+    public LocalDateTime getTimestampFrom() {
+        return timestampFrom;
+    }
+
+    public void setTimestampFrom(LocalDateTime timestampFrom) {
+        this.timestampFrom = timestampFrom;
+    }
+
+    public LocalDateTime getTimestampTo() {
+        return timestampTo;
+    }
+
+    public void setTimestampTo(LocalDateTime timestampTo) {
+        this.timestampTo = timestampTo;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
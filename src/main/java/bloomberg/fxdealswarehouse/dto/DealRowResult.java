@@ -0,0 +1,73 @@
+package bloomberg.fxdealswarehouse.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public class DealRowResult {
+    public static final String IMPORTED = "IMPORTED";
+    public static final String FAILED = "FAILED";
+
+    private int rowNumber;
+    private String dealId;
+    private String status;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String reasonCode;
+    private String message;
+
+    public DealRowResult() {
+    }
+
+    public DealRowResult(int rowNumber, String dealId, String status, String message) {
+        this.rowNumber = rowNumber;
+        this.dealId = dealId;
+        this.status = status;
+        this.message = message;
+    }
+
+    public DealRowResult(int rowNumber, String dealId, String status, String reasonCode, String message) {
+        this.rowNumber = rowNumber;
+        this.dealId = dealId;
+        this.status = status;
+        this.reasonCode = reasonCode;
+        this.message = message;
+    }
+
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    public void setRowNumber(int rowNumber) {
+        this.rowNumber = rowNumber;
+    }
+
+    public String getDealId() {
+        return dealId;
+    }
+
+    public void setDealId(String dealId) {
+        this.dealId = dealId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getReasonCode() {
+        return reasonCode;
+    }
+
+    public void setReasonCode(String reasonCode) {
+        this.reasonCode = reasonCode;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
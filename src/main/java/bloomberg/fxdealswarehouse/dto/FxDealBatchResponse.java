@@ -1,5 +1,7 @@
 package bloomberg.fxdealswarehouse.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -7,7 +9,10 @@ public class FxDealBatchResponse {
     private int totalRequested;
     private int successCount;
     private int failureCount;
+    // null when the request's BatchResponseMode leaves the list out
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<FxDealResponse> successfulDeals;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<DealError> failedDeals;
 
     public FxDealBatchResponse() {
@@ -15,6 +20,11 @@ public class FxDealBatchResponse {
         this.failedDeals = new ArrayList<>();
     }
 
+    public FxDealBatchResponse(BatchResponseMode mode) {
+        this.successfulDeals = mode.includesSuccessfulDeals() ? new ArrayList<>() : null;
+        this.failedDeals = mode.includesFailedDeals() ? new ArrayList<>() : null;
+    }
+
     public int getTotalRequested() {
         return totalRequested;
     }
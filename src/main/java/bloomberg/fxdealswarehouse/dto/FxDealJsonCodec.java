@@ -0,0 +1,248 @@
+package bloomberg.fxdealswarehouse.dto;
+
+import bloomberg.fxdealswarehouse.entity.CurrencyCodes;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Streaming JSON binding for the deal DTOs, used by the application ObjectMapper in place of bean
+// binding. Requests are read token by token: ISO timestamps and currency codes are taken straight
+// from the parser's character buffer, amounts from its decimal value. Anything off the common
+// path (other date shapes, quoted amounts, bad values) is handed to the standard deserializers, so
+// accepted input and error reporting stay the same. Responses are written field by field in the
+// order bean serialization used.
+@JsonComponent
+public class FxDealJsonCodec {
+    private static final SerializableString DEAL_ID = new SerializedString("dealId");
+    private static final SerializableString FROM_CURRENCY = new SerializedString("fromCurrency");
+    private static final SerializableString TO_CURRENCY = new SerializedString("toCurrency");
+    private static final SerializableString DEAL_TIMESTAMP = new SerializedString("dealTimestamp");
+    private static final SerializableString DEAL_AMOUNT = new SerializedString("dealAmount");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    // nanoseconds per unit of a fraction with 1..9 digits
+    private static final int[] NANO_SCALE = {0, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100,
+            10, 1};
+
+    // For ObjectMappers built outside Spring, e.g. in benchmarks.
+    public static SimpleModule module() {
+        SimpleModule module = new SimpleModule("FxDealJsonCodec");
+        module.addDeserializer(FxDealRequest.class, new RequestDeserializer());
+        module.addSerializer(FxDealResponse.class, new ResponseSerializer());
+        return module;
+    }
+
+    public static class RequestDeserializer extends JsonDeserializer<FxDealRequest> {
+        @Override
+        public FxDealRequest deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = parser.nextToken();
+            } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+                return (FxDealRequest) context.handleUnexpectedToken(FxDealRequest.class, parser);
+            }
+            FxDealRequest request = new FxDealRequest();
+            for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "dealId" -> request.setDealId(readString(parser, context));
+                    case "fromCurrency" -> request.setFromCurrency(readCurrency(parser, context));
+                    case "toCurrency" -> request.setToCurrency(readCurrency(parser, context));
+                    case "dealTimestamp" -> request.setDealTimestamp(readTimestamp(parser, context));
+                    case "dealAmount" -> request.setDealAmount(readAmount(parser, context));
+                    default -> context.handleUnknownProperty(parser, this, FxDealRequest.class, field);
+                }
+            }
+            return request;
+        }
+    }
+
+    public static class ResponseSerializer extends JsonSerializer<FxDealResponse> {
+        @Override
+        public void serialize(FxDealResponse response, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(response);
+            generator.writeFieldName(DEAL_ID);
+            generator.writeString(response.getDealId());
+            generator.writeFieldName(FROM_CURRENCY);
+            generator.writeString(response.getFromCurrency());
+            generator.writeFieldName(TO_CURRENCY);
+            generator.writeString(response.getToCurrency());
+            generator.writeFieldName(DEAL_TIMESTAMP);
+            writeTimestamp(generator, provider, response.getDealTimestamp());
+            generator.writeFieldName(DEAL_AMOUNT);
+            generator.writeNumber(response.getDealAmount());
+            generator.writeFieldName(CREATED_AT);
+            writeTimestamp(generator, provider, response.getCreatedAt());
+            generator.writeFieldName(MESSAGE);
+            generator.writeString(response.getMessage());
+            generator.writeEndObject();
+        }
+    }
+
+    private static String readString(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getValueAsString();
+        }
+        return (String) context.handleUnexpectedToken(String.class, parser);
+    }
+
+    // Well-formed codes resolve to the shared CurrencyCodes strings; anything else is kept as sent
+    // for the validator to reject.
+    private static String readCurrency(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING || parser.getTextLength() != 3) {
+            return readString(parser, context);
+        }
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int packed = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = text[offset + i] - 'A' + 1;
+            if (letter < 1 || letter > 26) {
+                return parser.getText();
+            }
+            packed = (packed << 5) | letter;
+        }
+        return CurrencyCodes.unpack((short) packed);
+    }
+
+    private static LocalDateTime readTimestamp(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            LocalDateTime timestamp = parseTimestamp(parser.getTextCharacters(), parser.getTextOffset(),
+                    parser.getTextLength());
+            if (timestamp != null) {
+                return timestamp;
+            }
+        }
+        return context.readValue(parser, LocalDateTime.class);
+    }
+
+    private static BigDecimal readAmount(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDecimalValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return context.readValue(parser, BigDecimal.class);
+    }
+
+    // yyyy-MM-ddTHH:mm:ss with an optional 1-9 digit fraction; null for any other shape or an
+    // out-of-range field.
+    static LocalDateTime parseTimestamp(char[] text, int offset, int length) {
+        if (length < 19 || length == 20 || length > 29
+                || text[offset + 4] != '-' || text[offset + 7] != '-' || text[offset + 10] != 'T'
+                || text[offset + 13] != ':' || text[offset + 16] != ':') {
+            return null;
+        }
+        int year = digits(text, offset, 4);
+        int month = digits(text, offset + 5, 2);
+        int day = digits(text, offset + 8, 2);
+        int hour = digits(text, offset + 11, 2);
+        int minute = digits(text, offset + 14, 2);
+        int second = digits(text, offset + 17, 2);
+        int nano = 0;
+        if (length > 19) {
+            if (text[offset + 19] != '.') {
+                return null;
+            }
+            int fraction = digits(text, offset + 20, length - 20);
+            nano = fraction < 0 ? -1 : fraction * NANO_SCALE[length - 20];
+        }
+        if ((year | month | day | hour | minute | second | nano) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int digits(char[] text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // Same text as ISO_LOCAL_DATE_TIME: seconds always present, fraction without trailing zeros.
+    static void writeTimestamp(JsonGenerator generator, SerializerProvider provider, LocalDateTime timestamp)
+            throws IOException {
+        if (timestamp == null) {
+            generator.writeNull();
+            return;
+        }
+        if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeValue(timestamp, generator);
+            return;
+        }
+        if (timestamp.getYear() < 0 || timestamp.getYear() > 9999) {
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp));
+            return;
+        }
+        char[] text = new char[29];
+        put(text, 0, timestamp.getYear(), 4);
+        text[4] = '-';
+        put(text, 5, timestamp.getMonthValue(), 2);
+        text[7] = '-';
+        put(text, 8, timestamp.getDayOfMonth(), 2);
+        text[10] = 'T';
+        put(text, 11, timestamp.getHour(), 2);
+        text[13] = ':';
+        put(text, 14, timestamp.getMinute(), 2);
+        text[16] = ':';
+        put(text, 17, timestamp.getSecond(), 2);
+        int length = 19;
+        int nano = timestamp.getNano();
+        if (nano != 0) {
+            text[19] = '.';
+            put(text, 20, nano, 9);
+            length = 29;
+            while (text[length - 1] == '0') {
+                length--;
+            }
+        }
+        generator.writeString(text, 0, length);
+    }
+
+    private static void put(char[] text, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
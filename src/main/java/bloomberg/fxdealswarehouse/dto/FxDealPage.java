@@ -0,0 +1,44 @@
+package bloomberg.fxdealswarehouse.dto;
+
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+
+import java.util.List;
+
+public class FxDealPage {
+    private List<FxDeal> deals;
+    private int size;
+    private String nextCursor;
+
+    public FxDealPage() {
+    }
+
+    public FxDealPage(List<FxDeal> deals, String nextCursor) {
+        this.deals = deals;
+        this.size = deals.size();
+        this.nextCursor = nextCursor;
+    }
+
+    public List<FxDeal> getDeals() {
+        return deals;
+    }
+
+    public void setDeals(List<FxDeal> deals) {
+        this.deals = deals;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -1,5 +1,7 @@
 package bloomberg.fxdealswarehouse.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -11,6 +13,9 @@ public class FxDealResponse {
     private BigDecimal dealAmount;
     private LocalDateTime createdAt;
     private String message;
+    // accepted into the local journal, not yet in fx_deals; answered with 202 instead of 201
+    @JsonIgnore
+    private boolean pending;
     public FxDealResponse() {
     }
     public FxDealResponse(String dealId, String fromCurrency, String toCurrency, LocalDateTime dealTimestamp, BigDecimal dealAmount, LocalDateTime createdAt, String message) {
@@ -75,4 +80,12 @@ public class FxDealResponse {
 
     public void setMessage(String message) {
         this.message = message;
+    }
+
+    public boolean isPending() {
+        return pending;
+    }
+
+    public void setPending(boolean pending) {
+        this.pending = pending;
     }}
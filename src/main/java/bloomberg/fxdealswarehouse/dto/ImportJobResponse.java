@@ -0,0 +1,125 @@
+package bloomberg.fxdealswarehouse.dto;
+
+import bloomberg.fxdealswarehouse.entity.JobStatus;
+
+import java.time.LocalDateTime;
+
+public class ImportJobResponse {
+    private String jobId;
+    private JobStatus status;
+    private int totalRequested;
+    private int processedCount;
+    private int successCount;
+    private int failureCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private double dealsPerSecond;
+    private Long estimatedSecondsRemaining;
+    private String errorMessage;
+    private FxDealBatchResponse result;
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public int getTotalRequested() {
+        return totalRequested;
+    }
+
+    public void setTotalRequested(int totalRequested) {
+        this.totalRequested = totalRequested;
+    }
+
+    public int getProcessedCount() {
+        return processedCount;
+    }
+
+    public void setProcessedCount(int processedCount) {
+        this.processedCount = processedCount;
+    }
+
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    public void setSuccessCount(int successCount) {
+        this.successCount = successCount;
+    }
+
+    public int getFailureCount() {
+        return failureCount;
+    }
+
+    public void setFailureCount(int failureCount) {
+        this.failureCount = failureCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public double getDealsPerSecond() {
+        return dealsPerSecond;
+    }
+
+    public void setDealsPerSecond(double dealsPerSecond) {
+        this.dealsPerSecond = dealsPerSecond;
+    }
+
+    public Long getEstimatedSecondsRemaining() {
+        return estimatedSecondsRemaining;
+    }
+
+    public void setEstimatedSecondsRemaining(Long estimatedSecondsRemaining) {
+        this.estimatedSecondsRemaining = estimatedSecondsRemaining;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public FxDealBatchResponse getResult() {
+        return result;
+    }
+
+    public void setResult(FxDealBatchResponse result) {
+        this.result = result;
+    }
+}
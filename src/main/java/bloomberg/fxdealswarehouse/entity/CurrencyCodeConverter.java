@@ -0,0 +1,19 @@
+package bloomberg.fxdealswarehouse.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Keeps the from_currency / to_currency columns as plain ISO codes while the entity holds packed shorts.
+@Converter
+public class CurrencyCodeConverter implements AttributeConverter<Short, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Short packed) {
+        return packed == null ? null : CurrencyCodes.unpack(packed);
+    }
+
+    @Override
+    public Short convertToEntityAttribute(String code) {
+        return CurrencyCodes.pack(code);
+    }
+}
@@ -0,0 +1,47 @@
+package bloomberg.fxdealswarehouse.entity;
+
+// Packs a three-letter currency code into 15 bits (5 bits per letter, 1..26) so a deal keeps a
+// short instead of a String. 0 stands for "no currency". Decoded codes come from a shared table,
+// so unpacking does not allocate after the first use of a code.
+public final class CurrencyCodes {
+    public static final short NONE = 0;
+    private static final String[] DECODED = new String[1 << 15];
+
+    private CurrencyCodes() {
+    }
+
+    public static short pack(String code) {
+        if (code == null) {
+            return NONE;
+        }
+        if (code.length() != 3) {
+            throw new IllegalArgumentException("Invalid currency code: " + code);
+        }
+        int packed = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = code.charAt(i) - 'A' + 1;
+            if (letter < 1 || letter > 26) {
+                throw new IllegalArgumentException("Invalid currency code: " + code);
+            }
+            packed = (packed << 5) | letter;
+        }
+        return (short) packed;
+    }
+
+    public static String unpack(short packed) {
+        if (packed == NONE) {
+            return null;
+        }
+        String code = DECODED[packed];
+        if (code == null) {
+            // racing threads build equal strings; either may end up in the table
+            code = new String(new char[]{letter(packed >> 10), letter(packed >> 5), letter(packed)});
+            DECODED[packed] = code;
+        }
+        return code;
+    }
+
+    private static char letter(int bits) {
+        return (char) ('A' + (bits & 0x1F) - 1);
+    }
+}
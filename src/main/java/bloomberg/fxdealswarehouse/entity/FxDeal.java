@@ -1,42 +1,65 @@
 package bloomberg.fxdealswarehouse.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Persistable so that saveAll() persists new deals directly: with an assigned id and no version
+// Spring Data would otherwise merge, i.e. SELECT each deal first, which also defeats JDBC batching.
 @Entity
 @Table(name = "fx_deals")
-public class FxDeal {
+public class FxDeal implements Persistable<String> {
+    private static final byte NO_AMOUNT = Byte.MIN_VALUE;
+    private static final byte LARGE_AMOUNT = Byte.MAX_VALUE;
     
     @Id
     @Column(name = "deal_id")
     private String dealId;
     
+    // Currencies are held as packed codes (see CurrencyCodes) and stored as ISO strings.
     @Column(name = "from_currency", length = 3, nullable = false)
-    private String fromCurrency;
+    @Convert(converter = CurrencyCodeConverter.class)
+    private short fromCurrency;
     
     @Column(name = "to_currency", length = 3, nullable = false)
-    private String toCurrency;
+    @Convert(converter = CurrencyCodeConverter.class)
+    private short toCurrency;
     
     @Column(name = "deal_timestamp", nullable = false)
     private LocalDateTime dealTimestamp;
     
-    @Column(name = "deal_amount", nullable = false)
-    private BigDecimal dealAmount;
+    // The amount is held as an unscaled long plus its scale and mapped through the
+    // dealAmount property; only amounts beyond 18 digits fall back to a BigDecimal.
+    @Transient
+    private long amountUnscaled;
+    
+    @Transient
+    private byte amountScale = NO_AMOUNT;
+    
+    // Always set for large amounts; otherwise built on the first read and reused until the next set,
+    // so deals that are only written stay compact and repeated reads do not allocate.
+    @Transient
+    private BigDecimal amount;
     
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    @Transient
+    private boolean newDeal = true;
+    
     public FxDeal() {
     }
     
     public FxDeal(String dealId, String fromCurrency, String toCurrency, 
                   LocalDateTime dealTimestamp, BigDecimal dealAmount) {
         this.dealId = dealId;
-        this.fromCurrency = fromCurrency;
-        this.toCurrency = toCurrency;
+        this.fromCurrency = CurrencyCodes.pack(fromCurrency);
+        this.toCurrency = CurrencyCodes.pack(toCurrency);
         this.dealTimestamp = dealTimestamp;
-        this.dealAmount = dealAmount;
+        setDealAmount(dealAmount);
     }
     
     @PrePersist
@@ -44,6 +67,24 @@ public class FxDeal {
         this.createdAt = LocalDateTime.now();
     }
     
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        this.newDeal = false;
+    }
+    
+    @Override
+    @JsonIgnore
+    public String getId() {
+        return dealId;
+    }
+    
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newDeal;
+    }
+    
     public String getDealId() {
         return dealId;
     }
@@ -53,19 +94,19 @@ public class FxDeal {
     }
     
     public String getFromCurrency() {
-        return fromCurrency;
+        return CurrencyCodes.unpack(fromCurrency);
     }
     
     public void setFromCurrency(String fromCurrency) {
-        this.fromCurrency = fromCurrency;
+        this.fromCurrency = CurrencyCodes.pack(fromCurrency);
     }
     
     public String getToCurrency() {
-        return toCurrency;
+        return CurrencyCodes.unpack(toCurrency);
     }
     
     public void setToCurrency(String toCurrency) {
-        this.toCurrency = toCurrency;
+        this.toCurrency = CurrencyCodes.pack(toCurrency);
     }
     
     public LocalDateTime getDealTimestamp() {
@@ -76,15 +117,37 @@ public class FxDeal {
         this.dealTimestamp = dealTimestamp;
     }
     
+    @Access(AccessType.PROPERTY)
+    @Column(name = "deal_amount", nullable = false)
     public BigDecimal getDealAmount() {
-        return dealAmount;
+        if (amountScale == NO_AMOUNT) {
+            return null;
+        }
+        if (amount == null) {
+            amount = BigDecimal.valueOf(amountUnscaled, amountScale);
+        }
+        return amount;
     }
     
     public void setDealAmount(BigDecimal dealAmount) {
-        this.dealAmount = dealAmount;
+        amount = null;
+        if (dealAmount == null) {
+            amountScale = NO_AMOUNT;
+        } else if (dealAmount.unscaledValue().bitLength() < 64
+                && dealAmount.scale() > NO_AMOUNT && dealAmount.scale() < LARGE_AMOUNT) {
+            amountUnscaled = dealAmount.unscaledValue().longValueExact();
+            amountScale = (byte) dealAmount.scale();
+        } else {
+            amountScale = LARGE_AMOUNT;
+            amount = dealAmount;
+        }
     }
     
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
 }
\ No newline at end of file
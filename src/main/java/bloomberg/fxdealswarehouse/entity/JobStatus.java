@@ -0,0 +1,9 @@
+package bloomberg.fxdealswarehouse.entity;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    INTERRUPTED
+}
@@ -0,0 +1,11 @@
+package bloomberg.fxdealswarehouse.exception;
+
+import java.io.IOException;
+
+// A gzip or zstd request body that cannot be decoded; an IOException so it travels through the
+// handler's reads like any other failure of the body stream.
+public class ContentDecodingException extends IOException {
+    public ContentDecodingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package bloomberg.fxdealswarehouse.exception;
+
+public class DealNotFoundException extends RuntimeException {
+    public DealNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package bloomberg.fxdealswarehouse.exception;
+
+public class InvalidQueryException extends RuntimeException {
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+}
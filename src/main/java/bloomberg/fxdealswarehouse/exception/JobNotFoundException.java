@@ -0,0 +1,7 @@
+package bloomberg.fxdealswarehouse.exception;
+
+public class JobNotFoundException extends RuntimeException {
+    public JobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package bloomberg.fxdealswarehouse.exception;
+
+public class JobQueueFullException extends RuntimeException {
+    public JobQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package bloomberg.fxdealswarehouse.repository;
+
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+
+public interface DealCopyWriter {
+    void write(int rowNumber, FxDeal deal);
+}
@@ -1,10 +1,38 @@
 package bloomberg.fxdealswarehouse.repository;
 
 import bloomberg.fxdealswarehouse.entity.FxDeal;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface FxDealRepository extends JpaRepository<FxDeal, String> {
+public interface FxDealRepository extends JpaRepository<FxDeal, String>, FxDealRepositoryCustom {
     boolean existsByDealId(String dealId);
+
+    @Query("select d.dealId from FxDeal d where d.dealId in :dealIds")
+    List<String> findExistingDealIds(@Param("dealIds") Collection<String> dealIds);
+
+    // Served by idx_fx_deals_pair_timestamp; the range is half-open [start, end). The currency attributes
+    // are packed shorts (see CurrencyCodeConverter), so callers bind CurrencyCodes.pack values.
+    @Query("select d from FxDeal d where d.fromCurrency = :fromCurrency and d.toCurrency = :toCurrency " +
+            "and d.dealTimestamp >= :start and d.dealTimestamp < :end order by d.dealTimestamp, d.dealId")
+    List<FxDeal> findByPairInRange(@Param("fromCurrency") short fromCurrency, @Param("toCurrency") short toCurrency,
+                                   @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                   Pageable pageable);
+
+    // Served by idx_fx_deals_timestamp; the range is half-open [start, end).
+    @Query("select d from FxDeal d where d.dealTimestamp >= :start and d.dealTimestamp < :end " +
+            "order by d.dealTimestamp, d.dealId")
+    List<FxDeal> findInRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end, Pageable pageable);
+
+    @Query("select count(d) from FxDeal d where d.fromCurrency = :fromCurrency and d.toCurrency = :toCurrency " +
+            "and d.dealTimestamp >= :start and d.dealTimestamp < :end")
+    long countByPairInRange(@Param("fromCurrency") short fromCurrency, @Param("toCurrency") short toCurrency,
+                            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
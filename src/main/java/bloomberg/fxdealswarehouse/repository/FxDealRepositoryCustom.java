@@ -0,0 +1,25 @@
+package bloomberg.fxdealswarehouse.repository;
+
+import bloomberg.fxdealswarehouse.dto.DealError;
+import bloomberg.fxdealswarehouse.dto.DealQuery;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public interface FxDealRepositoryCustom {
+    boolean insertIfAbsent(FxDeal deal);
+
+    Set<String> insertAllIfAbsent(List<FxDeal> deals);
+
+    List<DealError> bulkInsertIfAbsent(StagedDealSource source) throws IOException;
+
+    void forEachDealId(Consumer<String> action);
+
+    void forEachDeal(DealQuery query, Consumer<FxDeal> action);
+
+    List<FxDeal> findPage(DealQuery query, LocalDateTime afterTimestamp, String afterDealId, int limit);
+}
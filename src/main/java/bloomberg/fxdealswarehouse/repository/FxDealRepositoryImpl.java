@@ -0,0 +1,365 @@
+package bloomberg.fxdealswarehouse.repository;
+
+import bloomberg.fxdealswarehouse.dto.DealError;
+import bloomberg.fxdealswarehouse.dto.DealQuery;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Duplicate detection relies on the fx_deals primary key: an insert that affects no row means
+// the deal already exists. PostgreSQL gets ON CONFLICT DO NOTHING; other databases (H2 in tests)
+// get a plain insert whose duplicate-key error is mapped to the same outcome.
+// A partitioned fx_deals can only be unique on (deal_id, deal_timestamp), so there the deal id is
+// first claimed in the fx_deal_ids registry and only claimed rows reach the partitions.
+public class FxDealRepositoryImpl implements FxDealRepositoryCustom {
+    private static final String INSERT_SQL =
+            "INSERT INTO fx_deals (deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_IF_ABSENT_SQL = INSERT_SQL + " ON CONFLICT (deal_id) DO NOTHING";
+    private static final String INSERT_ALL_IF_ABSENT_SQL =
+            "INSERT INTO fx_deals (deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at) " +
+            "SELECT * FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::timestamp[], ?::numeric[], ?::timestamp[]) " +
+            "ON CONFLICT (deal_id) DO NOTHING RETURNING deal_id";
+    private static final String PARTITIONED_INSERT_IF_ABSENT_SQL =
+            "WITH claimed AS (INSERT INTO fx_deal_ids (deal_id) VALUES (?) ON CONFLICT (deal_id) DO NOTHING RETURNING deal_id) " +
+            "INSERT INTO fx_deals (deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at) " +
+            "SELECT deal_id, ?::varchar, ?::varchar, ?::timestamp, ?::numeric, ?::timestamp FROM claimed";
+    private static final String PARTITIONED_INSERT_ALL_IF_ABSENT_SQL =
+            "WITH input AS (SELECT DISTINCT ON (deal_id) * FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], " +
+            "?::timestamp[], ?::numeric[], ?::timestamp[]) " +
+            "AS t(deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at)), " +
+            "claimed AS (INSERT INTO fx_deal_ids (deal_id) SELECT deal_id FROM input " +
+            "ON CONFLICT (deal_id) DO NOTHING RETURNING deal_id) " +
+            "INSERT INTO fx_deals (deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at) " +
+            "SELECT i.* FROM input i JOIN claimed c ON c.deal_id = i.deal_id RETURNING deal_id";
+    private static final String CREATE_STAGING_SQL =
+            "CREATE TEMP TABLE fx_deals_staging (row_number INTEGER NOT NULL, deal_id VARCHAR(255) NOT NULL, " +
+            "from_currency VARCHAR(3) NOT NULL, to_currency VARCHAR(3) NOT NULL, deal_timestamp TIMESTAMP(6) NOT NULL, " +
+            "deal_amount NUMERIC(38, 2) NOT NULL, created_at TIMESTAMP(6) NOT NULL) ON COMMIT DROP";
+    private static final String COPY_STAGING_SQL =
+            "COPY fx_deals_staging (row_number, deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at) " +
+            "FROM STDIN (FORMAT csv)";
+    // The first row of each deal id competes for insertion; every staged row that did not end up
+    // in fx_deals (existing deal or repeated in the file) is returned as a duplicate.
+    private static final String FIRST_STAGED_ROWS_CTE =
+            "WITH first_rows AS (SELECT DISTINCT ON (deal_id) * FROM fx_deals_staging ORDER BY deal_id, row_number), ";
+    private static final String STAGED_DUPLICATES_SQL =
+            "SELECT s.row_number, s.deal_id FROM fx_deals_staging s WHERE NOT EXISTS " +
+            "(SELECT 1 FROM inserted i JOIN first_rows f ON f.deal_id = i.deal_id WHERE f.row_number = s.row_number) " +
+            "ORDER BY s.row_number";
+    private static final String MOVE_STAGED_SQL = FIRST_STAGED_ROWS_CTE +
+            "inserted AS (INSERT INTO fx_deals (deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at) " +
+            "SELECT deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at FROM first_rows " +
+            "ON CONFLICT (deal_id) DO NOTHING RETURNING deal_id) " + STAGED_DUPLICATES_SQL;
+    private static final String PARTITIONED_MOVE_STAGED_SQL = FIRST_STAGED_ROWS_CTE +
+            "claimed AS (INSERT INTO fx_deal_ids (deal_id) SELECT deal_id FROM first_rows " +
+            "ON CONFLICT (deal_id) DO NOTHING RETURNING deal_id), " +
+            "inserted AS (INSERT INTO fx_deals (deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at) " +
+            "SELECT f.deal_id, f.from_currency, f.to_currency, f.deal_timestamp, f.deal_amount, f.created_at " +
+            "FROM first_rows f JOIN claimed c ON c.deal_id = f.deal_id RETURNING deal_id) " + STAGED_DUPLICATES_SQL;
+    private static final int COPY_BUFFER_SIZE = 256 * 1024;
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid " +
+            "WHERE c.relname = 'fx_deals' AND pg_table_is_visible(c.oid))";
+    private static final String SELECT_DEAL_IDS_SQL = "SELECT deal_id FROM fx_deals";
+    private static final String SELECT_DEALS_SQL =
+            "SELECT deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at FROM fx_deals";
+    private static final RowMapper<FxDeal> DEAL_ROW_MAPPER = (rs, rowNum) -> {
+        FxDeal deal = new FxDeal(
+                rs.getString("deal_id"),
+                rs.getString("from_currency"),
+                rs.getString("to_currency"),
+                rs.getObject("deal_timestamp", LocalDateTime.class),
+                rs.getBigDecimal("deal_amount")
+        );
+        deal.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        return deal;
+    };
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+    private volatile Boolean partitioned;
+
+    public FxDealRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public boolean insertIfAbsent(FxDeal deal) {
+        if (isPostgres()) {
+            String sql = isPartitioned() ? PARTITIONED_INSERT_IF_ABSENT_SQL : INSERT_IF_ABSENT_SQL;
+            return jdbcTemplate.update(sql, insertArgs(deal)) == 1;
+        }
+        try {
+            return jdbcTemplate.update(INSERT_SQL, insertArgs(deal)) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    // One statement per chunk on PostgreSQL: the rows travel as column arrays and RETURNING
+    // reports exactly which ones were inserted.
+    @Override
+    @Transactional
+    public Set<String> insertAllIfAbsent(List<FxDeal> deals) {
+        Set<String> inserted = new HashSet<>();
+        if (deals.isEmpty()) {
+            return inserted;
+        }
+        if (!isPostgres()) {
+            for (FxDeal deal : deals) {
+                if (insertIfAbsent(deal)) {
+                    inserted.add(deal.getDealId());
+                }
+            }
+            return inserted;
+        }
+        String[][] columns = new String[6][deals.size()];
+        for (int i = 0; i < deals.size(); i++) {
+            FxDeal deal = deals.get(i);
+            columns[0][i] = deal.getDealId();
+            columns[1][i] = deal.getFromCurrency();
+            columns[2][i] = deal.getToCurrency();
+            columns[3][i] = deal.getDealTimestamp().toString();
+            columns[4][i] = deal.getDealAmount().toPlainString();
+            columns[5][i] = deal.getCreatedAt().toString();
+        }
+        String sql = isPartitioned() ? PARTITIONED_INSERT_ALL_IF_ABSENT_SQL : INSERT_ALL_IF_ABSENT_SQL;
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            for (int c = 0; c < columns.length; c++) {
+                ps.setArray(c + 1, connection.createArrayOf("varchar", columns[c]));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> inserted.add(rs.getString(1)));
+        return inserted;
+    }
+
+    // PostgreSQL: rows are streamed with COPY into an unlogged temp table, then moved into fx_deals by
+    // one set-based statement, all in one transaction. Elsewhere rows are inserted one by one.
+    @Override
+    @Transactional
+    public List<DealError> bulkInsertIfAbsent(StagedDealSource source) throws IOException {
+        List<DealError> duplicates = new ArrayList<>();
+        if (!isPostgres()) {
+            source.writeTo((rowNumber, deal) -> {
+                if (!insertIfAbsent(deal)) {
+                    duplicates.add(duplicateError(rowNumber, deal.getDealId()));
+                }
+            });
+            return duplicates;
+        }
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+        copyIntoStaging(source);
+        jdbcTemplate.execute("ANALYZE fx_deals_staging");
+        String sql = isPartitioned() ? PARTITIONED_MOVE_STAGED_SQL : MOVE_STAGED_SQL;
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs ->
+                duplicates.add(duplicateError(rs.getInt(1), rs.getString(2))));
+        return duplicates;
+    }
+
+    private void copyIntoStaging(StagedDealSource source) throws IOException {
+        DataSource dataSource = jdbcTemplate.getDataSource();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        CopyIn copyIn = null;
+        try {
+            copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING_SQL);
+            PgCopyWriter writer = new PgCopyWriter(copyIn);
+            source.writeTo(writer);
+            writer.flush();
+            copyIn.endCopy();
+        } catch (SQLException e) {
+            throw jdbcTemplate.getExceptionTranslator().translate("COPY into staging", COPY_STAGING_SQL, e);
+        } finally {
+            cancelQuietly(copyIn);
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private void cancelQuietly(CopyIn copyIn) {
+        if (copyIn == null || !copyIn.isActive()) {
+            return;
+        }
+        try {
+            copyIn.cancelCopy();
+        } catch (SQLException e) {
+            // the transaction is rolled back anyway
+        }
+    }
+
+    private DealError duplicateError(int rowNumber, String dealId) {
+        return new DealError(dealId, DealError.DUPLICATE, "Deal " + dealId + " already exists", rowNumber);
+    }
+
+    // Encodes rows as CSV and hands them to the server in large blocks.
+    private class PgCopyWriter implements DealCopyWriter {
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 1024);
+
+        PgCopyWriter(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        @Override
+        public void write(int rowNumber, FxDeal deal) {
+            buffer.append(rowNumber).append(",\"")
+                    .append(deal.getDealId().replace("\"", "\"\"")).append("\",")
+                    .append(deal.getFromCurrency()).append(',')
+                    .append(deal.getToCurrency()).append(',')
+                    .append(deal.getDealTimestamp()).append(',')
+                    .append(deal.getDealAmount().toPlainString()).append(',')
+                    .append(deal.getCreatedAt()).append('\n');
+            if (buffer.length() >= COPY_BUFFER_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (buffer.length() == 0) {
+                return;
+            }
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            buffer.setLength(0);
+            try {
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            } catch (SQLException e) {
+                throw jdbcTemplate.getExceptionTranslator().translate("COPY into staging", COPY_STAGING_SQL, e);
+            }
+        }
+    }
+
+    // Read-only transaction so PostgreSQL streams through a cursor instead of buffering the table.
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachDealId(Consumer<String> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_DEAL_IDS_SQL);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(rs.getString(1)));
+    }
+
+    // Same cursor-backed read as forEachDealId; rows are mapped to detached FxDeal objects and handed
+    // over one by one, so nothing accumulates in memory or in a persistence context.
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachDeal(DealQuery query, Consumer<FxDeal> action) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        addFilters(query, conditions, args);
+        StringBuilder sql = new StringBuilder(SELECT_DEALS_SQL);
+        appendWhere(sql, conditions);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString());
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            new ArgumentPreparedStatementSetter(args.toArray()).setValues(ps);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(DEAL_ROW_MAPPER.mapRow(rs, 0)));
+    }
+
+    // Keyset pagination over (deal_timestamp, deal_id): the page starts right after the last row the
+    // client saw, so the cost of a page does not grow with how deep into the data set it is.
+    @Override
+    public List<FxDeal> findPage(DealQuery query, LocalDateTime afterTimestamp, String afterDealId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        addFilters(query, conditions, args);
+        if (afterTimestamp != null) {
+            conditions.add("deal_timestamp >= ? AND (deal_timestamp > ? OR deal_id > ?)");
+            args.add(afterTimestamp);
+            args.add(afterTimestamp);
+            args.add(afterDealId);
+        }
+        StringBuilder sql = new StringBuilder(SELECT_DEALS_SQL);
+        appendWhere(sql, conditions);
+        sql.append(" ORDER BY deal_timestamp, deal_id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), DEAL_ROW_MAPPER, args.toArray());
+    }
+
+    private void appendWhere(StringBuilder sql, List<String> conditions) {
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
+
+    private void addFilters(DealQuery query, List<String> conditions, List<Object> args) {
+        if (query.getFromCurrency() != null) {
+            conditions.add("from_currency = ?");
+            args.add(query.getFromCurrency());
+        }
+        if (query.getToCurrency() != null) {
+            conditions.add("to_currency = ?");
+            args.add(query.getToCurrency());
+        }
+        if (query.getTimestampFrom() != null) {
+            conditions.add("deal_timestamp >= ?");
+            args.add(query.getTimestampFrom());
+        }
+        if (query.getTimestampTo() != null) {
+            conditions.add("deal_timestamp < ?");
+            args.add(query.getTimestampTo());
+        }
+        if (query.getMinAmount() != null) {
+            conditions.add("deal_amount >= ?");
+            args.add(query.getMinAmount());
+        }
+        if (query.getMaxAmount() != null) {
+            conditions.add("deal_amount <= ?");
+            args.add(query.getMaxAmount());
+        }
+    }
+
+    private Object[] insertArgs(FxDeal deal) {
+        return new Object[]{
+                deal.getDealId(),
+                deal.getFromCurrency(),
+                deal.getToCurrency(),
+                deal.getDealTimestamp(),
+                deal.getDealAmount(),
+                deal.getCreatedAt()
+        };
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            postgres = result;
+        }
+        return result;
+    }
+
+    private boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            result = Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Boolean.class));
+            partitioned = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,46 @@
+package bloomberg.fxdealswarehouse.repository;
+
+import bloomberg.fxdealswarehouse.entity.ImportJob;
+import bloomberg.fxdealswarehouse.entity.JobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    @Modifying
+    @Transactional
+    @Query("update ImportJob j set j.processedCount = :processed, j.successCount = :success, " +
+            "j.failureCount = :failure where j.jobId = :jobId")
+    int updateProgress(@Param("jobId") String jobId, @Param("processed") int processed,
+                       @Param("success") int success, @Param("failure") int failure);
+
+    // Last resort when the job entity itself cannot be saved; errorMessage must fit the column.
+    @Modifying
+    @Transactional
+    @Query("update ImportJob j set j.status = :status, j.errorMessage = :errorMessage, " +
+            "j.finishedAt = :finishedAt where j.jobId = :jobId")
+    int markFinished(@Param("jobId") String jobId, @Param("status") JobStatus status,
+                     @Param("errorMessage") String errorMessage, @Param("finishedAt") LocalDateTime finishedAt);
+
+    @Modifying
+    @Transactional
+    @Query("update ImportJob j set j.heartbeatAt = :heartbeatAt where j.jobId in :jobIds")
+    int touch(@Param("jobIds") Collection<String> jobIds, @Param("heartbeatAt") LocalDateTime heartbeatAt);
+
+    // Only jobs whose owner stopped sending heartbeats, so jobs still running on other instances are left alone.
+    @Modifying
+    @Transactional
+    @Query("update ImportJob j set j.status = :status, j.finishedAt = :finishedAt " +
+            "where j.status in :activeStatuses and j.heartbeatAt < :staleBefore")
+    int markStaleJobs(@Param("activeStatuses") Collection<JobStatus> activeStatuses,
+                      @Param("staleBefore") LocalDateTime staleBefore,
+                      @Param("status") JobStatus status, @Param("finishedAt") LocalDateTime finishedAt);
+}
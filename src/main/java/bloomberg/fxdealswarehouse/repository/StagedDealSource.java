@@ -0,0 +1,8 @@
+package bloomberg.fxdealswarehouse.repository;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface StagedDealSource {
+    void writeTo(DealCopyWriter writer) throws IOException;
+}
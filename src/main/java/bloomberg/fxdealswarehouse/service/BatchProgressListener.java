@@ -0,0 +1,9 @@
+package bloomberg.fxdealswarehouse.service;
+
+@FunctionalInterface
+public interface BatchProgressListener {
+    BatchProgressListener NONE = (processed, successCount, failureCount) -> {
+    };
+
+    void onProgress(int processed, int successCount, int failureCount);
+}
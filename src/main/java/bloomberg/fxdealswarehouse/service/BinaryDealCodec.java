@@ -0,0 +1,155 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.dto.FxDealRequest;
+import bloomberg.fxdealswarehouse.entity.CurrencyCodes;
+import bloomberg.fxdealswarehouse.exception.InvalidDealException;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Binary deal feed, application/x-fx-deals: the 4-byte magic "FXD1", then one record per deal, big-endian:
+//   u16 dealId length, dealId UTF-8 (length 0 = no id)
+//   3 bytes fromCurrency, 3 bytes toCurrency, ASCII (all zero = no currency)
+//   u8 flags (1 = timestamp present, 2 = amount present)
+//   i64 timestamp epoch seconds UTC, i32 nanos
+//   i64 unscaled amount, u8 scale
+// Every field after the id has a fixed width, so decoding is a handful of reads per deal with no
+// text parsing; currency codes come from the CurrencyCodes table rather than new strings.
+public final class BinaryDealCodec {
+    public static final String MEDIA_TYPE = "application/x-fx-deals";
+    private static final int MAGIC = ('F' << 24) | ('X' << 16) | ('D' << 8) | '1';
+    private static final int HAS_TIMESTAMP = 1;
+    private static final int HAS_AMOUNT = 2;
+    private static final int MAX_DEAL_ID_BYTES = 0xFFFF;
+
+    private BinaryDealCodec() {
+    }
+
+    public static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+    }
+
+    // Amounts must fit a long once unscaled, with a scale of 0..255.
+    public static void write(DataOutputStream out, FxDealRequest deal) throws IOException {
+        byte[] dealId = deal.getDealId() == null ? new byte[0] : deal.getDealId().getBytes(StandardCharsets.UTF_8);
+        if (dealId.length > MAX_DEAL_ID_BYTES) {
+            throw new IllegalArgumentException("Deal id is longer than " + MAX_DEAL_ID_BYTES + " bytes");
+        }
+        out.writeShort(dealId.length);
+        out.write(dealId);
+        writeCurrency(out, deal.getFromCurrency());
+        writeCurrency(out, deal.getToCurrency());
+        LocalDateTime timestamp = deal.getDealTimestamp();
+        BigDecimal amount = deal.getDealAmount();
+        out.writeByte((timestamp != null ? HAS_TIMESTAMP : 0) | (amount != null ? HAS_AMOUNT : 0));
+        out.writeLong(timestamp == null ? 0 : timestamp.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(timestamp == null ? 0 : timestamp.getNano());
+        if (amount != null && amount.scale() < 0) {
+            amount = amount.setScale(0);
+        }
+        if (amount != null && amount.scale() > 255) {
+            throw new IllegalArgumentException("Deal amount scale is above 255: " + amount);
+        }
+        out.writeLong(amount == null ? 0 : amount.unscaledValue().longValueExact());
+        out.writeByte(amount == null ? 0 : amount.scale());
+    }
+
+    // Rejects the stream up front when it does not start with the magic.
+    public static Reader reader(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        int magic;
+        try {
+            magic = data.readInt();
+        } catch (EOFException e) {
+            throw new InvalidDealException("Binary deal stream is empty");
+        }
+        if (magic != MAGIC) {
+            throw new InvalidDealException("Not a binary deal stream (" + MEDIA_TYPE + ")");
+        }
+        return new Reader(data);
+    }
+
+    private static void writeCurrency(DataOutputStream out, String code) throws IOException {
+        if (code == null) {
+            out.write(new byte[3]);
+            return;
+        }
+        byte[] ascii = code.getBytes(StandardCharsets.US_ASCII);
+        if (ascii.length != 3) {
+            throw new IllegalArgumentException("Currency code must be 3 characters: " + code);
+        }
+        out.write(ascii);
+    }
+
+    public static final class Reader {
+        private final DataInputStream in;
+        private final byte[] currency = new byte[3];
+        private byte[] dealId = new byte[64];
+
+        private Reader(DataInputStream in) {
+            this.in = in;
+        }
+
+        // Null at the end of the stream; EOFException if it ends inside a record. A record with an
+        // impossible timestamp throws DateTimeException once it has been read in full.
+        public FxDealRequest next() throws IOException {
+            int first = in.read();
+            if (first < 0) {
+                return null;
+            }
+            int idLength = (first << 8) | readUnsignedByte();
+            if (dealId.length < idLength) {
+                dealId = new byte[Math.max(idLength, dealId.length * 2)];
+            }
+            in.readFully(dealId, 0, idLength);
+            FxDealRequest deal = new FxDealRequest();
+            deal.setDealId(idLength == 0 ? null : new String(dealId, 0, idLength, StandardCharsets.UTF_8));
+            deal.setFromCurrency(readCurrency());
+            deal.setToCurrency(readCurrency());
+            int flags = readUnsignedByte();
+            long seconds = in.readLong();
+            int nanos = in.readInt();
+            long unscaled = in.readLong();
+            int scale = readUnsignedByte();
+            if ((flags & HAS_TIMESTAMP) != 0) {
+                deal.setDealTimestamp(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC));
+            }
+            if ((flags & HAS_AMOUNT) != 0) {
+                deal.setDealAmount(BigDecimal.valueOf(unscaled, scale));
+            }
+            return deal;
+        }
+
+        private String readCurrency() throws IOException {
+            in.readFully(currency);
+            if (currency[0] == 0 && currency[1] == 0 && currency[2] == 0) {
+                return null;
+            }
+            int packed = 0;
+            for (byte b : currency) {
+                int letter = b - 'A' + 1;
+                if (letter < 1 || letter > 26) {
+                    // left to the validator to reject
+                    return new String(currency, StandardCharsets.US_ASCII);
+                }
+                packed = (packed << 5) | letter;
+            }
+            return CurrencyCodes.unpack((short) packed);
+        }
+
+        private int readUnsignedByte() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            return b;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.dto.BatchResponseMode;
+import bloomberg.fxdealswarehouse.dto.DealError;
+import bloomberg.fxdealswarehouse.dto.FxDealBatchResponse;
+import bloomberg.fxdealswarehouse.dto.FxDealRequest;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Imports a BinaryDealCodec stream straight from the request body: deals are decoded one at a time
+// and handed to importChunk a chunk at a time, so neither the upload nor a JSON tree is held in memory.
+@Service
+public class BinaryDealImporter {
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private final Logger logger = LoggerFactory.getLogger(BinaryDealImporter.class);
+    private final FxDealService fxDealService;
+    private final ImportProperties importProperties;
+    private final ImportMetrics metrics;
+    private final FailureLogSampler failureLogSampler;
+
+    public BinaryDealImporter(FxDealService fxDealService, ImportProperties importProperties,
+                              ImportMetrics metrics, FailureLogSampler failureLogSampler) {
+        this.fxDealService = fxDealService;
+        this.importProperties = importProperties;
+        this.metrics = metrics;
+        this.failureLogSampler = failureLogSampler;
+    }
+
+    public FxDealBatchResponse importStream(InputStream in, BatchResponseMode mode) throws IOException {
+        BinaryDealCodec.Reader reader = BinaryDealCodec.reader(new BufferedInputStream(in, READ_BUFFER_BYTES));
+        int chunkSize = Math.max(1, importProperties.getChunkSize());
+        List<FxDealRequest> chunk = new ArrayList<>(chunkSize);
+        FxDealBatchResponse response = new FxDealBatchResponse(mode);
+        ImportFailureLog failureLog = failureLogSampler.newLog();
+        int rowNumber = 0;
+        int firstRowOfChunk = 1;
+        long parseNanos = 0;
+        long startMillis = System.currentTimeMillis();
+        boolean truncated = false;
+        while (!truncated) {
+            FxDealRequest deal;
+            DealError malformed = null;
+            long parseStart = metrics.start();
+            try {
+                deal = reader.next();
+                if (deal == null) {
+                    break;
+                }
+                rowNumber++;
+            } catch (DateTimeException e) {
+                // the record was read in full, so the stream is still in step
+                rowNumber++;
+                deal = null;
+                malformed = new DealError(null, DealError.MALFORMED,
+                        "Malformed deal: " + e.getMessage(), rowNumber);
+            } catch (EOFException e) {
+                rowNumber++;
+                deal = null;
+                truncated = true;
+                malformed = new DealError(null, DealError.MALFORMED,
+                        "Truncated deal record, import stopped", rowNumber);
+            } finally {
+                parseNanos += System.nanoTime() - parseStart;
+            }
+            if (deal != null) {
+                chunk.add(deal);
+                if (chunk.size() < chunkSize) {
+                    continue;
+                }
+            }
+            metrics.recordStageNanos(ImportMetrics.Stage.PARSE, parseNanos);
+            parseNanos = 0;
+            addChunk(chunk, firstRowOfChunk, response, failureLog);
+            chunk.clear();
+            firstRowOfChunk = rowNumber + 1;
+            if (malformed != null) {
+                addFailure(malformed, response, failureLog);
+                metrics.recordOutcomes(0, 0, 1);
+            }
+        }
+        metrics.recordStageNanos(ImportMetrics.Stage.PARSE, parseNanos);
+        addChunk(chunk, firstRowOfChunk, response, failureLog);
+        response.setTotalRequested(rowNumber);
+        metrics.recordBatchSize(rowNumber);
+        logger.info("Binary import completed: total={} successful={} failed={} failuresByType={} elapsedMs={}",
+                rowNumber, response.getSuccessCount(), response.getFailureCount(), failureLog,
+                System.currentTimeMillis() - startMillis);
+        return response;
+    }
+
+    private void addChunk(List<FxDealRequest> chunk, int firstRowNumber, FxDealBatchResponse response,
+                          ImportFailureLog failureLog) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        DealChunkResult result = fxDealService.importChunk(chunk, firstRowNumber);
+        long responseStart = metrics.start();
+        for (int i = 0; i < result.size(); i++) {
+            FxDeal deal = result.getImportedDeal(i);
+            if (deal != null) {
+                if (response.getSuccessfulDeals() != null) {
+                    response.getSuccessfulDeals().add(fxDealService.createResponse(deal));
+                }
+                response.setSuccessCount(response.getSuccessCount() + 1);
+            } else {
+                addFailure(result.getFailedDeal(i), response, failureLog);
+            }
+        }
+        metrics.recordStage(ImportMetrics.Stage.RESPONSE_BUILD, responseStart);
+    }
+
+    private void addFailure(DealError error, FxDealBatchResponse response, ImportFailureLog failureLog) {
+        failureLog.record(error.getReasonCode(), error);
+        if (response.getFailedDeals() != null) {
+            response.getFailedDeals().add(error);
+        }
+        response.setFailureCount(response.getFailureCount() + 1);
+    }
+}
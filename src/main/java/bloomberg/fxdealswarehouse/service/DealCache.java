@@ -0,0 +1,78 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.QueryProperties;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Bounded read-through cache of deals by id in front of fx_deals. Deals are never updated once
+// written, so entries are only ever added (on import or on a miss) and aged out by size or TTL.
+// Hits, misses and evictions are published as cache.* meters with cache=fx-deals.
+@Component
+public class DealCache {
+    private final Cache<String, FxDeal> cache;
+    private final Timer cacheLookups;
+    private final Timer databaseLookups;
+
+    public DealCache(QueryProperties queryProperties, MeterRegistry registry) {
+        QueryProperties.Cache config = queryProperties.getCache();
+        if (config.isEnabled()) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(Math.max(1, config.getMaximumSize()))
+                    .expireAfterWrite(config.getExpireAfterWrite())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(registry, cache, "fx-deals");
+            Gauge.builder("fx.deals.lookup.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                    .description("Share of deal lookups by id served from the cache")
+                    .register(registry);
+        } else {
+            this.cache = null;
+        }
+        this.cacheLookups = lookupTimer(registry, "cache");
+        this.databaseLookups = lookupTimer(registry, "database");
+    }
+
+    // Returns null when the loader does not find the deal; misses are not cached so a deal
+    // imported right after a failed lookup is found on the next request.
+    public FxDeal get(String dealId, Function<String, FxDeal> loader) {
+        long start = System.nanoTime();
+        FxDeal deal = cache == null ? null : cache.getIfPresent(dealId);
+        if (deal != null) {
+            cacheLookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return deal;
+        }
+        deal = loader.apply(dealId);
+        if (deal != null && cache != null) {
+            cache.put(dealId, deal);
+        }
+        databaseLookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return deal;
+    }
+
+    public void put(FxDeal deal) {
+        if (cache != null) {
+            cache.put(deal.getDealId(), deal);
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    private Timer lookupTimer(MeterRegistry registry, String source) {
+        return Timer.builder("fx.deals.lookup")
+                .description("Latency of deal lookups by id, by where the deal was found")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
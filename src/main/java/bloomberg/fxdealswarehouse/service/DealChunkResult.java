@@ -0,0 +1,49 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.dto.DealError;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+
+// Per-row outcome of one chunk as plain values: an imported deal or a DealError carrying its reason
+// code. Rejections on the batch path never go through exceptions.
+public class DealChunkResult {
+    public static final String DUPLICATE = DealError.DUPLICATE;
+
+    private final int firstRowNumber;
+    private final FxDeal[] importedDeals;
+    private final DealError[] failedDeals;
+
+    public DealChunkResult(int firstRowNumber, int size) {
+        this.firstRowNumber = firstRowNumber;
+        this.importedDeals = new FxDeal[size];
+        this.failedDeals = new DealError[size];
+    }
+
+    public int size() {
+        return importedDeals.length;
+    }
+
+    public int getFirstRowNumber() {
+        return firstRowNumber;
+    }
+
+    public FxDeal getImportedDeal(int index) {
+        return importedDeals[index];
+    }
+
+    public DealError getFailedDeal(int index) {
+        return failedDeals[index];
+    }
+
+    public String getFailureType(int index) {
+        DealError error = failedDeals[index];
+        return error == null ? null : error.getReasonCode();
+    }
+
+    void imported(int index, FxDeal deal) {
+        importedDeals[index] = deal;
+    }
+
+    void failed(int index, String dealId, String failureType, String errorMessage) {
+        failedDeals[index] = new DealError(dealId, failureType, errorMessage, firstRowNumber + index);
+    }
+}
@@ -0,0 +1,132 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.dto.DealQuery;
+import bloomberg.fxdealswarehouse.dto.ExportFormat;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import bloomberg.fxdealswarehouse.repository.FxDealRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+// Streams deals straight from a database cursor into the response, one row at a time,
+// so an export of the whole table needs no more memory than an export of ten rows.
+@Service
+public class DealExporter {
+    private static final String CSV_HEADER = "dealId,fromCurrency,toCurrency,dealTimestamp,dealAmount,createdAt\n";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    // both formats write timestamps as ISO-8601 with seconds, whatever the injected mapper is set up for
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final Logger logger = LoggerFactory.getLogger(DealExporter.class);
+    private final FxDealRepository fxDealRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter dealWriter;
+
+    public DealExporter(FxDealRepository fxDealRepository, ObjectMapper objectMapper) {
+        this.fxDealRepository = fxDealRepository;
+        this.objectMapper = objectMapper;
+        this.dealWriter = objectMapper.writerFor(FxDeal.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    public void validate(DealQuery query) {
+        FxDealQueryService.validate(query);
+    }
+
+    public void export(DealQuery query, ExportFormat format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long rows;
+        try {
+            rows = format == ExportFormat.CSV ? exportCsv(query, out) : exportNdjson(query, out);
+        } catch (UncheckedIOException e) {
+            // the client went away mid-export; the cursor and its transaction are already closed
+            throw e.getCause();
+        }
+        logger.info("Exported {} deals as {} in {} ms", rows, format, System.currentTimeMillis() - start);
+    }
+
+    private long exportNdjson(DealQuery query, OutputStream out) throws IOException {
+        long[] rows = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            fxDealRepository.forEachDeal(query, deal -> {
+                try {
+                    dealWriter.writeValue(generator, deal);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+            if (rows[0] > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return rows[0];
+    }
+
+    private long exportCsv(DealQuery query, OutputStream out) throws IOException {
+        long[] rows = {0};
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        writer.flush();
+        fxDealRepository.forEachDeal(query, deal -> {
+            try {
+                writeCsvRow(writer, deal);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        });
+        writer.flush();
+        return rows[0];
+    }
+
+    private void writeCsvRow(Writer writer, FxDeal deal) throws IOException {
+        writeCsvField(writer, deal.getDealId());
+        writer.write(',');
+        writer.write(deal.getFromCurrency());
+        writer.write(',');
+        writer.write(deal.getToCurrency());
+        writer.write(',');
+        writer.write(TIMESTAMP_FORMAT.format(deal.getDealTimestamp()));
+        writer.write(',');
+        writer.write(deal.getDealAmount().toPlainString());
+        writer.write(',');
+        if (deal.getCreatedAt() != null) {
+            writer.write(TIMESTAMP_FORMAT.format(deal.getCreatedAt()));
+        }
+        writer.write('\n');
+    }
+
+    // deal ids are free text; quote them only when they would break the row
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
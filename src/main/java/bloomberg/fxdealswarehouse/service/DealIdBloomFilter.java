@@ -0,0 +1,145 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.dto.DealIdFilterStats;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Probabilistic set of every persisted deal id. A negative answer is definite, so the duplicate
+// lookup can be skipped for that id; a positive answer still has to be confirmed against fx_deals.
+// Until the filter has been warmed from the table it answers "maybe" for everything.
+@Component
+public class DealIdBloomFilter {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long bitCount;
+    private final int hashFunctions;
+    private final AtomicLongArray bits;
+    private final LongAdder insertions = new LongAdder();
+    private final LongAdder probableHits = new LongAdder();
+    private final LongAdder definiteMisses = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile boolean ready;
+
+    public DealIdBloomFilter(ImportProperties importProperties) {
+        ImportProperties.BloomFilter config = importProperties.getBloomFilter();
+        this.enabled = config.isEnabled();
+        this.expectedInsertions = Math.max(1, config.getExpectedInsertions());
+        this.falsePositiveRate = config.getFalsePositiveRate();
+        if (enabled) {
+            double optimalBits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+            int words = (int) Math.min(Integer.MAX_VALUE - 8, (long) Math.ceil(optimalBits / 64));
+            this.bitCount = (long) words * 64;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+            this.bits = new AtomicLongArray(words);
+        } else {
+            this.bitCount = 0;
+            this.hashFunctions = 0;
+            this.bits = null;
+        }
+    }
+
+    public boolean mightContain(String dealId) {
+        if (!enabled || !ready) {
+            return true;
+        }
+        long h1 = hash(dealId);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                definiteMisses.increment();
+                return false;
+            }
+        }
+        probableHits.increment();
+        return true;
+    }
+
+    public void put(String dealId) {
+        if (!enabled) {
+            return;
+        }
+        long h1 = hash(dealId);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0) {
+                if (bits.compareAndSet(word, current, current | mask)) {
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        if (changed) {
+            insertions.increment();
+        }
+    }
+
+    public void recordFalsePositives(long count) {
+        falsePositives.add(count);
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public DealIdFilterStats stats() {
+        DealIdFilterStats stats = new DealIdFilterStats();
+        stats.setEnabled(enabled);
+        stats.setReady(ready);
+        stats.setBitCount(bitCount);
+        stats.setHashFunctions(hashFunctions);
+        stats.setApproximateSizeBytes(bitCount / 8);
+        stats.setInsertions(insertions.sum());
+        stats.setExpectedInsertions(expectedInsertions);
+        stats.setConfiguredFalsePositiveRate(falsePositiveRate);
+        stats.setEstimatedFalsePositiveRate(estimatedFalsePositiveRate());
+        stats.setProbableHits(probableHits.sum());
+        stats.setDefiniteMisses(definiteMisses.sum());
+        stats.setFalsePositives(falsePositives.sum());
+        return stats;
+    }
+
+    // (1 - e^(-kn/m))^k for the number of distinct ids inserted so far
+    private double estimatedFalsePositiveRate() {
+        if (!enabled) {
+            return 1.0;
+        }
+        double fill = 1 - Math.exp(-(double) hashFunctions * insertions.sum() / bitCount);
+        return Math.pow(fill, hashFunctions);
+    }
+
+    private static long hash(String value) {
+        long h = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,49 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.repository.FxDealRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Loads every existing deal id into the filter in the background so startup is not held up by
+// a full scan of fx_deals; imports fall back to plain database lookups until it completes.
+@Component
+public class DealIdFilterWarmer {
+    private final Logger logger = LoggerFactory.getLogger(DealIdFilterWarmer.class);
+    private final DealIdBloomFilter dealIdFilter;
+    private final FxDealRepository fxDealRepository;
+
+    public DealIdFilterWarmer(DealIdBloomFilter dealIdFilter, FxDealRepository fxDealRepository) {
+        this.dealIdFilter = dealIdFilter;
+        this.fxDealRepository = fxDealRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!dealIdFilter.isEnabled()) {
+            return;
+        }
+        Thread warmer = new Thread(this::load, "deal-id-filter-warmup");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    void load() {
+        long start = System.currentTimeMillis();
+        LongAdder loaded = new LongAdder();
+        try {
+            fxDealRepository.forEachDealId(dealId -> {
+                dealIdFilter.put(dealId);
+                loaded.increment();
+            });
+            dealIdFilter.markReady();
+            logger.info("Deal id filter warmed with {} ids in {} ms", loaded.sum(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("Deal id filter warm-up failed after {} ids, duplicate checks stay on the database", loaded.sum(), e);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Append-only journal of deals accepted while fx_deals cannot be written. Records go into
+// memory-mapped segment files as [length][crc32][deal]; an append returns once its record has been
+// forced to disk, and callers appending at the same time share one force. DealJournalReplayer seals
+// the active segment and drains sealed ones into fx_deals with insert-if-absent, so a segment that
+// is replayed twice after a crash or a second outage still stores each deal once.
+@Component
+public class DealJournal {
+    private static final String SEGMENT_PREFIX = "deals-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String DEAD_LETTER_SUFFIX = ".dead";
+    private static final int HEADER_BYTES = 8;
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final Logger logger = LoggerFactory.getLogger(DealJournal.class);
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final Object writeLock = new Object();
+    private volatile long pending;
+    private volatile boolean databaseDown;
+    private Segment active;
+    private long nextSequence;
+
+    public DealJournal(ImportProperties importProperties, MeterRegistry registry) {
+        ImportProperties.Journal config = importProperties.getJournal();
+        this.enabled = config.isEnabled();
+        this.directory = Paths.get(config.getDirectory());
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, Math.max(64 * 1024, config.getSegmentSize().toBytes()));
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            long recovered = 0;
+            for (Path segment : sealedSegments()) {
+                recovered += read(segment).size();
+                nextSequence = Math.max(nextSequence, sequenceOf(segment) + 1);
+            }
+            pending = recovered;
+            if (recovered > 0) {
+                logger.warn("Deal journal holds {} deals not yet replayed into fx_deals", recovered);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open deal journal in " + directory.toAbsolutePath(), e);
+        }
+        Gauge.builder("fx.deals.journal.pending", this, DealJournal::getPendingCount)
+                .description("Deals accepted into the local journal and not yet written to fx_deals")
+                .baseUnit("deals")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Connection, timeout and failover errors; constraint violations and bad SQL are not outages.
+    public static boolean isOutage(RuntimeException e) {
+        return e instanceof DataAccessResourceFailureException
+                || e instanceof TransientDataAccessException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    // Set on the first outage so later imports skip the connection timeout; cleared by the replayer
+    // once the journal has been drained.
+    public boolean isDatabaseDown() {
+        return databaseDown;
+    }
+
+    public void markDatabaseDown() {
+        if (!databaseDown) {
+            databaseDown = true;
+            logger.warn("Database unavailable, accepting deals into the local journal");
+        }
+    }
+
+    void markDatabaseUp() {
+        if (databaseDown) {
+            databaseDown = false;
+            logger.info("Database available again, deals are written directly");
+        }
+    }
+
+    public long getPendingCount() {
+        return pending;
+    }
+
+    public void append(FxDeal deal) {
+        byte[] record = encode(deal);
+        if (record.length + HEADER_BYTES > segmentSize) {
+            throw new IllegalArgumentException("Deal " + deal.getDealId() + " does not fit in a journal segment");
+        }
+        Segment segment;
+        int end;
+        synchronized (writeLock) {
+            try {
+                if (active == null || active.remaining() < record.length + HEADER_BYTES) {
+                    sealActive();
+                    active = new Segment(directory.resolve(segmentName(nextSequence++)), segmentSize);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create deal journal segment", e);
+            }
+            segment = active;
+            end = segment.write(record);
+            pending++;
+        }
+        segment.sync(end);
+    }
+
+    // Closes the segment being appended to, if it holds anything, so the replayer can take it.
+    public void seal() {
+        synchronized (writeLock) {
+            if (active != null && active.records > 0) {
+                sealActive();
+            }
+        }
+    }
+
+    // Sealed segments, oldest first.
+    public List<Path> sealedSegments() throws IOException {
+        Path activePath;
+        synchronized (writeLock) {
+            activePath = active == null ? null : active.path;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .filter(path -> !path.equals(activePath))
+                    .sorted((a, b) -> Long.compare(sequenceOf(a), sequenceOf(b)))
+                    .toList();
+        }
+    }
+
+    // Stops at the first zeroed or torn record: a crash can only lose a write that was never acknowledged.
+    public List<FxDeal> read(Path segment) throws IOException {
+        List<FxDeal> deals = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                byte[] record = new byte[length];
+                buffer.get(record);
+                crc.reset();
+                crc.update(record);
+                if ((int) crc.getValue() != checksum) {
+                    logger.warn("Deal journal segment {} has a torn record after {} deals", segment.getFileName(), deals.size());
+                    break;
+                }
+                deals.add(decode(ByteBuffer.wrap(record)));
+            }
+        }
+        return deals;
+    }
+
+    public void delete(Path segment, int deals) throws IOException {
+        Files.deleteIfExists(segment);
+        synchronized (writeLock) {
+            pending = Math.max(0, pending - deals);
+        }
+    }
+
+    // Keeps deals the database refused for good next to the journal as <segment>.dead, in the segment
+    // record format so read() can load them back. Writing it again for the same segment replaces it,
+    // so a replay repeated after a crash leaves one copy.
+    public Path deadLetter(Path segment, List<FxDeal> deals) throws IOException {
+        Path file = segment.resolveSibling(segment.getFileName() + DEAD_LETTER_SUFFIX);
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (FxDeal deal : deals) {
+                byte[] record = encode(deal);
+                crc.reset();
+                crc.update(record);
+                ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + record.length);
+                buffer.putInt(record.length).putInt((int) crc.getValue()).put(record).flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            channel.force(true);
+        }
+        return file;
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (writeLock) {
+            if (active != null) {
+                active.sync(active.position);
+                active.close();
+                active = null;
+            }
+        }
+    }
+
+    private void sealActive() {
+        if (active != null) {
+            active.sync(active.position);
+            active.close();
+            active = null;
+        }
+    }
+
+    private static String segmentName(long sequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX);
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    static byte[] encode(FxDeal deal) {
+        byte[] dealId = deal.getDealId().getBytes(StandardCharsets.UTF_8);
+        BigDecimal amount = deal.getDealAmount();
+        byte[] unscaled = amount.unscaledValue().toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(2 + dealId.length + 6 + 12 + 4 + 2 + unscaled.length + 12);
+        buffer.putShort((short) dealId.length).put(dealId);
+        buffer.put(deal.getFromCurrency().getBytes(StandardCharsets.US_ASCII));
+        buffer.put(deal.getToCurrency().getBytes(StandardCharsets.US_ASCII));
+        putTimestamp(buffer, deal.getDealTimestamp());
+        buffer.putInt(amount.scale()).putShort((short) unscaled.length).put(unscaled);
+        putTimestamp(buffer, deal.getCreatedAt());
+        return buffer.array();
+    }
+
+    static FxDeal decode(ByteBuffer buffer) {
+        byte[] dealId = new byte[buffer.getShort()];
+        buffer.get(dealId);
+        byte[] currencies = new byte[6];
+        buffer.get(currencies);
+        LocalDateTime dealTimestamp = getTimestamp(buffer);
+        int scale = buffer.getInt();
+        byte[] unscaled = new byte[buffer.getShort()];
+        buffer.get(unscaled);
+        FxDeal deal = new FxDeal(new String(dealId, StandardCharsets.UTF_8),
+                new String(currencies, 0, 3, StandardCharsets.US_ASCII),
+                new String(currencies, 3, 3, StandardCharsets.US_ASCII),
+                dealTimestamp, new BigDecimal(new BigInteger(unscaled), scale));
+        deal.setCreatedAt(getTimestamp(buffer));
+        return deal;
+    }
+
+    private static void putTimestamp(ByteBuffer buffer, LocalDateTime timestamp) {
+        if (timestamp == null) {
+            buffer.putLong(NO_TIMESTAMP).putInt(0);
+        } else {
+            buffer.putLong(timestamp.toEpochSecond(ZoneOffset.UTC)).putInt(timestamp.getNano());
+        }
+    }
+
+    private static LocalDateTime getTimestamp(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == NO_TIMESTAMP ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final CRC32 crc = new CRC32();
+        private volatile int position;
+        private int synced;
+        private int records;
+
+        private Segment(Path path, int size) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        private int remaining() {
+            return buffer.capacity() - position;
+        }
+
+        // called under the journal's write lock
+        private int write(byte[] record) {
+            crc.reset();
+            crc.update(record);
+            int start = position;
+            buffer.put(start + HEADER_BYTES, record);
+            buffer.putInt(start + 4, (int) crc.getValue());
+            buffer.putInt(start, record.length);
+            records++;
+            position = start + HEADER_BYTES + record.length;
+            return position;
+        }
+
+        private synchronized void sync(int end) {
+            if (synced >= end) {
+                return;
+            }
+            int upTo = position;
+            buffer.force(synced, upTo - synced);
+            synced = upTo;
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close deal journal segment " + path.getFileName(), e);
+            }
+        }
+    }
+}
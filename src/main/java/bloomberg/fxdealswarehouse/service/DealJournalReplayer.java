@@ -0,0 +1,124 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import bloomberg.fxdealswarehouse.repository.FxDealRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Drains sealed journal segments into fx_deals a chunk at a time. A segment is deleted only after
+// every chunk has been written; if the database fails part way the whole segment is retried on the
+// next run and deals that already made it in are skipped by insert-if-absent. A chunk refused for
+// any other reason is retried one deal at a time, and deals the database still refuses are moved to
+// a dead-letter file, so one bad record cannot hold the journal (and single-deal ingest) hostage.
+@Component
+@ConditionalOnProperty(prefix = "fx-deals.import.journal", name = "enabled", havingValue = "true")
+public class DealJournalReplayer {
+    private final Logger logger = LoggerFactory.getLogger(DealJournalReplayer.class);
+    private final DealJournal journal;
+    private final FxDealRepository fxDealRepository;
+    private final DealIdBloomFilter dealIdFilter;
+    private final DealCache dealCache;
+    private final ImportProperties importProperties;
+
+    public DealJournalReplayer(DealJournal journal, FxDealRepository fxDealRepository, DealIdBloomFilter dealIdFilter,
+                               DealCache dealCache, ImportProperties importProperties) {
+        this.journal = journal;
+        this.fxDealRepository = fxDealRepository;
+        this.dealIdFilter = dealIdFilter;
+        this.dealCache = dealCache;
+        this.importProperties = importProperties;
+    }
+
+    @Scheduled(fixedDelayString = "${fx-deals.import.journal.replay-interval:PT5S}")
+    public void replay() {
+        if (journal.getPendingCount() == 0) {
+            return;
+        }
+        journal.seal();
+        try {
+            for (Path segment : journal.sealedSegments()) {
+                replay(segment);
+            }
+        } catch (RuntimeException e) {
+            if (!DealJournal.isOutage(e)) {
+                throw e;
+            }
+            journal.markDatabaseDown();
+            logger.warn("Journal replay paused, database still unavailable: {}", e.getMessage());
+            return;
+        } catch (IOException e) {
+            logger.error("Journal replay failed reading segments", e);
+            return;
+        }
+        // deals journaled while this run was replaying are picked up by the next one
+        journal.markDatabaseUp();
+    }
+
+    private void replay(Path segment) throws IOException {
+        List<FxDeal> deals = journal.read(segment);
+        int chunkSize = Math.max(1, importProperties.getChunkSize());
+        int written = 0;
+        List<FxDeal> refused = new ArrayList<>();
+        for (int start = 0; start < deals.size(); start += chunkSize) {
+            List<FxDeal> chunk = deals.subList(start, Math.min(start + chunkSize, deals.size()));
+            Set<String> insertedIds;
+            try {
+                insertedIds = fxDealRepository.insertAllIfAbsent(chunk);
+            } catch (RuntimeException e) {
+                if (DealJournal.isOutage(e)) {
+                    throw e;
+                }
+                logger.warn("Journal segment {} chunk of {} deals refused, replaying it one deal at a time: {}",
+                        segment.getFileName(), chunk.size(), e.getMessage());
+                insertedIds = replayOneByOne(chunk, refused);
+            }
+            for (FxDeal deal : chunk) {
+                if (insertedIds.contains(deal.getDealId())) {
+                    dealCache.put(deal);
+                }
+                if (!refused.contains(deal)) {
+                    dealIdFilter.put(deal.getDealId());
+                }
+            }
+            written += insertedIds.size();
+        }
+        if (!refused.isEmpty()) {
+            Path deadLetters = journal.deadLetter(segment, refused);
+            logger.error("{} journaled deals from {} were refused by the database and moved to {}",
+                    refused.size(), segment.getFileName(), deadLetters.getFileName());
+        }
+        journal.delete(segment, deals.size());
+        logger.info("Replayed journal segment {}: {} deals written, {} already stored, {} refused",
+                segment.getFileName(), written, deals.size() - written - refused.size(), refused.size());
+    }
+
+    // An outage still aborts the segment, so it is kept for the next run.
+    private Set<String> replayOneByOne(List<FxDeal> chunk, List<FxDeal> refused) {
+        Set<String> insertedIds = new HashSet<>();
+        for (FxDeal deal : chunk) {
+            try {
+                if (fxDealRepository.insertIfAbsent(deal)) {
+                    insertedIds.add(deal.getDealId());
+                }
+            } catch (RuntimeException e) {
+                if (DealJournal.isOutage(e)) {
+                    throw e;
+                }
+                logger.error("Journaled deal {} refused by the database: {}", deal.getDealId(), e.getMessage());
+                refused.add(deal);
+            }
+        }
+        return insertedIds;
+    }
+}
@@ -0,0 +1,85 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.dto.FxDealRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+// Validates deals without exceptions or per-row allocation. ISO 4217 codes are looked up in a
+// bitset over all 26^3 three-letter codes, built once from the JDK currency table.
+@Component
+public class DealValidator {
+    private static final int LETTERS = 26;
+    private static final long[] ISO_CODES = new long[(LETTERS * LETTERS * LETTERS + 63) / 64];
+    private static final BigDecimal MIN_AMOUNT = new BigDecimal("0.01");
+    // Column limits of fx_deals: deal_id VARCHAR(255), and deal_amount NUMERIC(38, 2), which rounds
+    // to two places, so anything from 10^36 - 0.005 up would overflow.
+    private static final int MAX_DEAL_ID_LENGTH = 255;
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("1E36").subtract(new BigDecimal("0.005"));
+
+    static {
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            int index = codeIndex(currency.getCurrencyCode());
+            if (index >= 0) {
+                ISO_CODES[index >>> 6] |= 1L << index;
+            }
+        }
+    }
+
+    public DealViolation validate(FxDealRequest request) {
+        String dealId = request.getDealId();
+        if (dealId == null || dealId.isBlank()) {
+            return DealViolation.MISSING_DEAL_ID;
+        }
+        if (dealId.length() > MAX_DEAL_ID_LENGTH) {
+            return DealViolation.DEAL_ID_TOO_LONG;
+        }
+        if (request.getDealTimestamp() == null) {
+            return DealViolation.MISSING_TIMESTAMP;
+        }
+        BigDecimal amount = request.getDealAmount();
+        if (amount == null) {
+            return DealViolation.MISSING_AMOUNT;
+        }
+        String from = request.getFromCurrency();
+        if (!isIsoCurrency(from)) {
+            return DealViolation.INVALID_FROM_CURRENCY;
+        }
+        String to = request.getToCurrency();
+        if (!isIsoCurrency(to)) {
+            return DealViolation.INVALID_TO_CURRENCY;
+        }
+        if (from.equals(to)) {
+            return DealViolation.SAME_CURRENCY;
+        }
+        if (amount.compareTo(MIN_AMOUNT) < 0) {
+            return DealViolation.AMOUNT_NOT_POSITIVE;
+        }
+        if (amount.compareTo(MAX_AMOUNT) >= 0) {
+            return DealViolation.AMOUNT_TOO_LARGE;
+        }
+        return null;
+    }
+
+    public boolean isIsoCurrency(String code) {
+        int index = codeIndex(code);
+        return index >= 0 && (ISO_CODES[index >>> 6] & (1L << index)) != 0;
+    }
+
+    // Position of an upper-case three-letter code in [0, 26^3), or -1 for anything else.
+    private static int codeIndex(String code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = code.charAt(i) - 'A';
+            if (letter < 0 || letter >= LETTERS) {
+                return -1;
+            }
+            index = index * LETTERS + letter;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,28 @@
+package bloomberg.fxdealswarehouse.service;
+
+// Shared, immutable validation outcomes: rejecting a row allocates nothing.
+public enum DealViolation {
+    MISSING_DEAL_ID("Deal ID is required"),
+    DEAL_ID_TOO_LONG("Deal ID must be at most 255 characters"),
+    MISSING_TIMESTAMP("Deal timestamp is required"),
+    MISSING_AMOUNT("Deal amount is required"),
+    INVALID_FROM_CURRENCY("Invalid currency (fromCurrency)"),
+    INVALID_TO_CURRENCY("Invalid currency (toCurrency)"),
+    SAME_CURRENCY("From and To currency cannot be same"),
+    AMOUNT_NOT_POSITIVE("Deal amount must be positive"),
+    AMOUNT_TOO_LARGE("Deal amount must be below 10^36");
+
+    private final String message;
+
+    DealViolation(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isCurrencyViolation() {
+        return this == INVALID_FROM_CURRENCY || this == INVALID_TO_CURRENCY;
+    }
+}
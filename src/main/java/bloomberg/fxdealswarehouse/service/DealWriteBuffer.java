@@ -0,0 +1,220 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import bloomberg.fxdealswarehouse.repository.FxDealRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Group commit for single-deal imports: callers hand their deal to a bounded queue and wait while
+// one writer thread inserts everything queued within fx-deals.import.group-commit.max-delay (or up
+// to max-batch-size deals) in a single transaction. A caller is only released once the commit
+// holding its deal has returned, so a 201 still means the deal is in fx_deals. A caller never waits
+// longer than commit-timeout: past it, or once the writer has stopped, it fails like a database
+// timeout, which the journal (when enabled) treats as an outage.
+@Component
+public class DealWriteBuffer {
+    private static final long IDLE_POLL_MILLIS = 100;
+    private final Logger logger = LoggerFactory.getLogger(DealWriteBuffer.class);
+    private final FxDealRepository fxDealRepository;
+    private final ImportMetrics metrics;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long commitTimeoutNanos;
+    private final BlockingQueue<PendingDeal> queue;
+    private final Thread writer;
+    private volatile boolean running;
+
+    public DealWriteBuffer(FxDealRepository fxDealRepository, ImportProperties importProperties, ImportMetrics metrics) {
+        ImportProperties.GroupCommit config = importProperties.getGroupCommit();
+        this.fxDealRepository = fxDealRepository;
+        this.metrics = metrics;
+        this.enabled = config.isEnabled();
+        this.maxBatchSize = Math.max(1, config.getMaxBatchSize());
+        this.maxDelayNanos = Math.max(0, config.getMaxDelay().toNanos());
+        this.commitTimeoutNanos = Math.max(1, config.getCommitTimeout().toNanos());
+        if (enabled) {
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+            this.writer = new Thread(this::drain, "deal-group-commit");
+            this.writer.setDaemon(true);
+            this.running = true;
+            this.writer.start();
+            logger.info("Single-deal imports are group committed: up to {} deals or {} ms per commit",
+                    maxBatchSize, config.getMaxDelay().toMillis());
+        } else {
+            this.queue = null;
+            this.writer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Same contract as FxDealRepository.insertIfAbsent; blocks while the queue is full, up to commit-timeout.
+    public boolean insertIfAbsent(FxDeal deal) {
+        if (!running) {
+            throw new IllegalStateException("Group commit writer is not running");
+        }
+        PendingDeal pending = new PendingDeal(deal);
+        long deadline = System.nanoTime() + commitTimeoutNanos;
+        try {
+            if (!queue.offer(pending, commitTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new QueryTimeoutException("Group commit queue stayed full for "
+                        + TimeUnit.NANOSECONDS.toMillis(commitTimeoutNanos) + " ms");
+            }
+            // the writer may have stopped, and drained the queue for the last time, after the check above
+            if (!running) {
+                failQueued();
+            }
+            return pending.result.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // if it is still queued it will not be written; if it is in a commit already, a retry is a duplicate
+            queue.remove(pending);
+            throw new QueryTimeoutException("Group commit did not complete within "
+                    + TimeUnit.NANOSECONDS.toMillis(commitTimeoutNanos) + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Group commit failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        List<PendingDeal> group = new ArrayList<>(maxBatchSize);
+        try {
+            drain(group);
+        } finally {
+            // also reached when the writer dies on an Error, so no caller is left waiting on it
+            running = false;
+            group.forEach(pending -> pending.result.completeExceptionally(
+                    new IllegalStateException("Group commit writer stopped")));
+            failQueued();
+        }
+    }
+
+    private void drain(List<PendingDeal> group) {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingDeal first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (group.size() < maxBatchSize) {
+                    if (queue.drainTo(group, maxBatchSize - group.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingDeal next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!group.isEmpty()) {
+                commit(group);
+                group.clear();
+            }
+        }
+    }
+
+    private void failQueued() {
+        List<PendingDeal> stranded = new ArrayList<>();
+        queue.drainTo(stranded);
+        stranded.forEach(pending -> pending.result.completeExceptionally(
+                new IllegalStateException("Group commit writer stopped")));
+    }
+
+    // Only the first occurrence of a deal id in the group competes for the insert; later ones
+    // are reported as duplicates exactly as if they had arrived in a later transaction.
+    private void commit(List<PendingDeal> group) {
+        List<FxDeal> deals = new ArrayList<>(group.size());
+        Set<String> dealIds = new HashSet<>();
+        boolean[] first = new boolean[group.size()];
+        for (int i = 0; i < group.size(); i++) {
+            FxDeal deal = group.get(i).deal;
+            first[i] = dealIds.add(deal.getDealId());
+            if (first[i]) {
+                deals.add(deal);
+            }
+        }
+        Set<String> insertedIds;
+        try {
+            insertedIds = fxDealRepository.insertAllIfAbsent(deals);
+        } catch (RuntimeException e) {
+            if (DealJournal.isOutage(e) || group.size() == 1) {
+                logger.warn("Group commit of {} deals failed: {}", group.size(), e.getMessage());
+                group.forEach(pending -> pending.result.completeExceptionally(e));
+                return;
+            }
+            // One deal the database refuses fails the whole statement; insert the group one deal at a
+            // time so only its own caller gets the error.
+            logger.warn("Group commit of {} deals failed, retrying one by one: {}", group.size(), e.getMessage());
+            commitOneByOne(group);
+            return;
+        }
+        metrics.recordGroupCommit(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            PendingDeal pending = group.get(i);
+            pending.result.complete(first[i] && insertedIds.contains(pending.deal.getDealId()));
+        }
+    }
+
+    // In arrival order, so a repeated deal id still loses to its first occurrence.
+    private void commitOneByOne(List<PendingDeal> group) {
+        for (PendingDeal pending : group) {
+            try {
+                pending.result.complete(fxDealRepository.insertIfAbsent(pending.deal));
+            } catch (RuntimeException e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+        metrics.recordGroupCommit(group.size());
+    }
+
+    private static final class PendingDeal {
+        private final FxDeal deal;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private PendingDeal(FxDeal deal) {
+            this.deal = deal;
+        }
+    }
+}
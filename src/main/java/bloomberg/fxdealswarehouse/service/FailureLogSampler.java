@@ -0,0 +1,38 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Rate limit shared by all imports for logging individual deal failures; failures over the limit
+// are only counted in the per-import summary.
+@Component
+public class FailureLogSampler {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final int samplesPerSecond;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger logged = new AtomicInteger();
+
+    public FailureLogSampler(ImportProperties importProperties) {
+        this.samplesPerSecond = Math.max(0, importProperties.getLogging().getFailureSamplesPerSecond());
+    }
+
+    public boolean tryAcquire() {
+        if (samplesPerSecond == 0) {
+            return false;
+        }
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            logged.set(0);
+        }
+        return logged.incrementAndGet() <= samplesPerSecond;
+    }
+
+    public ImportFailureLog newLog() {
+        return new ImportFailureLog(this);
+    }
+}
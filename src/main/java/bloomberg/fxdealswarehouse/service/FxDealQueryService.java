@@ -0,0 +1,99 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.QueryProperties;
+import bloomberg.fxdealswarehouse.dto.DealQuery;
+import bloomberg.fxdealswarehouse.dto.FxDealPage;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import bloomberg.fxdealswarehouse.exception.DealNotFoundException;
+import bloomberg.fxdealswarehouse.exception.InvalidQueryException;
+import bloomberg.fxdealswarehouse.repository.FxDealRepository;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+@Service
+public class FxDealQueryService {
+    private final FxDealRepository fxDealRepository;
+    private final QueryProperties queryProperties;
+    private final DealCache dealCache;
+
+    public FxDealQueryService(FxDealRepository fxDealRepository, QueryProperties queryProperties,
+                              DealCache dealCache) {
+        this.fxDealRepository = fxDealRepository;
+        this.queryProperties = queryProperties;
+        this.dealCache = dealCache;
+    }
+
+    public FxDeal findDeal(String dealId) {
+        FxDeal deal = dealCache.get(dealId, id -> fxDealRepository.findById(id).orElse(null));
+        if (deal == null) {
+            throw new DealNotFoundException("Deal " + dealId + " not found");
+        }
+        return deal;
+    }
+
+    public FxDealPage findDeals(DealQuery query) {
+        validate(query);
+        int limit = pageSize(query.getLimit());
+        LocalDateTime afterTimestamp = null;
+        String afterDealId = null;
+        if (query.getCursor() != null && !query.getCursor().isBlank()) {
+            String[] position = decodeCursor(query.getCursor());
+            afterTimestamp = LocalDateTime.parse(position[0]);
+            afterDealId = position[1];
+        }
+        // one extra row tells us whether another page exists without a COUNT query
+        List<FxDeal> rows = fxDealRepository.findPage(query, afterTimestamp, afterDealId, limit + 1);
+        if (rows.size() <= limit) {
+            return new FxDealPage(rows, null);
+        }
+        List<FxDeal> page = new ArrayList<>(rows.subList(0, limit));
+        return new FxDealPage(page, encodeCursor(page.get(limit - 1)));
+    }
+
+    private int pageSize(Integer requested) {
+        if (requested == null) {
+            return Math.min(queryProperties.getDefaultPageSize(), queryProperties.getMaxPageSize());
+        }
+        if (requested < 1) {
+            throw new InvalidQueryException("Page limit must be at least 1");
+        }
+        return Math.min(requested, queryProperties.getMaxPageSize());
+    }
+
+    static void validate(DealQuery query) {
+        if (query.getTimestampFrom() != null && query.getTimestampTo() != null
+                && !query.getTimestampFrom().isBefore(query.getTimestampTo())) {
+            throw new InvalidQueryException("timestampFrom must be before timestampTo");
+        }
+        if (query.getMinAmount() != null && query.getMaxAmount() != null
+                && query.getMinAmount().compareTo(query.getMaxAmount()) > 0) {
+            throw new InvalidQueryException("minAmount cannot be greater than maxAmount");
+        }
+    }
+
+    private String encodeCursor(FxDeal last) {
+        String position = last.getDealTimestamp() + "|" + last.getDealId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            if (separator < 0) {
+                throw new InvalidQueryException("Invalid cursor");
+            }
+            String timestamp = position.substring(0, separator);
+            LocalDateTime.parse(timestamp);
+            return new String[]{timestamp, position.substring(separator + 1)};
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidQueryException("Invalid cursor");
+        }
+    }
+}
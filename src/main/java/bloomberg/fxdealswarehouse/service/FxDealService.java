@@ -1,5 +1,6 @@
 package bloomberg.fxdealswarehouse.service;
 
+import bloomberg.fxdealswarehouse.config.ImportProperties;
 import bloomberg.fxdealswarehouse.dto.*;
 import bloomberg.fxdealswarehouse.entity.FxDeal;
 import bloomberg.fxdealswarehouse.exception.DuplicateDealException;
@@ -7,95 +8,354 @@ import bloomberg.fxdealswarehouse.exception.InvalidDealException;
 import bloomberg.fxdealswarehouse.repository.FxDealRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.annotation.Propagation;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
-import java.util.Currency;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 @Service
 public class FxDealService {
     private final Logger logger = LoggerFactory.getLogger(FxDealService.class);
     private final FxDealRepository fxDealRepository;
+    private final ImportProperties importProperties;
+    private final DealIdBloomFilter dealIdFilter;
+    private final DealCache dealCache;
+    private final DealWriteBuffer dealWriteBuffer;
+    private final DealJournal dealJournal;
+    private final DealValidator dealValidator;
+    private final ImportMetrics metrics;
+    private final FailureLogSampler failureLogSampler;
+    private final ExecutorService importExecutor;
 
-    public FxDealService(FxDealRepository fxDealRepository) {
+    public FxDealService(FxDealRepository fxDealRepository, ImportProperties importProperties,
+                         DealIdBloomFilter dealIdFilter, DealCache dealCache, DealWriteBuffer dealWriteBuffer,
+                         DealJournal dealJournal, DealValidator dealValidator, ImportMetrics metrics,
+                         FailureLogSampler failureLogSampler,
+                         @Qualifier("importExecutor") ExecutorService importExecutor) {
         this.fxDealRepository = fxDealRepository;
+        this.importProperties = importProperties;
+        this.dealIdFilter = dealIdFilter;
+        this.dealCache = dealCache;
+        this.dealWriteBuffer = dealWriteBuffer;
+        this.dealJournal = dealJournal;
+        this.dealValidator = dealValidator;
+        this.metrics = metrics;
+        this.failureLogSampler = failureLogSampler;
+        this.importExecutor = importExecutor;
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    // Not transactional itself: the insert commits on its own (or in the writer's group commit),
+    // so a caller waiting on the write buffer does not hold a pooled connection.
     public FxDealResponse importDeal(FxDealRequest request) {
-        logger.info("Processing deal: {}", request.getDealId());
+        logger.debug("Processing deal: {}", request.getDealId());
 
-        if (fxDealRepository.existsByDealId(request.getDealId())) {
-            throw new DuplicateDealException("Deal " + request.getDealId() + " already exists");
+        DealViolation violation = dealValidator.validate(request);
+        if (violation != null) {
+            metrics.recordOutcomes(0, 0, 1);
+            // single-deal callers still get the exception types they always got
+            if (violation.isCurrencyViolation()) {
+                throw new IllegalArgumentException(violation.getMessage());
+            }
+            throw new InvalidDealException(violation.getMessage());
         }
-        validateCurrency(request.getFromCurrency());
-        validateCurrency(request.getToCurrency());
-        if(request.getFromCurrency().equals(request.getToCurrency())){
-            throw new InvalidDealException("From and To currency cannot be same");
+        FxDeal deal = toEntity(request);
+        if (dealJournal.isDatabaseDown()) {
+            return journal(deal);
         }
-        FxDeal deal=new FxDeal(
-                request.getDealId(),
-                request.getFromCurrency(),
-                request.getToCurrency(),
-                request.getDealTimestamp(),
-                request.getDealAmount()
-        );
-        FxDeal saved=fxDealRepository.save(deal);
-        logger.info("Deal saved: {}", saved.getDealId());
-        return createResponse(saved);
+        long persistStart = metrics.start();
+        boolean inserted;
+        try {
+            inserted = dealWriteBuffer.isEnabled()
+                    ? dealWriteBuffer.insertIfAbsent(deal)
+                    : fxDealRepository.insertIfAbsent(deal);
+        } catch (RuntimeException e) {
+            if (!dealJournal.isEnabled() || !DealJournal.isOutage(e)) {
+                throw e;
+            }
+            dealJournal.markDatabaseDown();
+            return journal(deal);
+        }
+        metrics.recordStage(ImportMetrics.Stage.PERSIST, persistStart);
+        if (!inserted) {
+            metrics.recordOutcomes(0, 1, 0);
+            throw new DuplicateDealException("Deal " + request.getDealId() + " already exists");
+        }
+        dealIdFilter.put(deal.getDealId());
+        dealCache.put(deal);
+        metrics.recordOutcomes(1, 0, 0);
+        logger.debug("Deal saved: {}", deal.getDealId());
+        return createResponse(deal);
+    }
+
+    // Duplicates cannot be checked while the database is down; the replayer drops them instead.
+    private FxDealResponse journal(FxDeal deal) {
+        long persistStart = metrics.start();
+        dealJournal.append(deal);
+        metrics.recordStage(ImportMetrics.Stage.PERSIST, persistStart);
+        metrics.recordJournaled(1);
+        FxDealResponse response = createResponse(deal);
+        response.setMessage("Deal accepted, it will be stored once the database is available");
+        response.setPending(true);
+        return response;
     }
     public FxDealBatchResponse importDealsInBatch(FxDealBatchRequest batchRequest) {
-        logger.info("Processing batch import of {} deals", batchRequest.getDeals().size());
-        FxDealBatchResponse response = new FxDealBatchResponse();
-        response.setTotalRequested(batchRequest.getDeals().size());
-        int rowNumber=1;
-        for(FxDealRequest dealRequest:batchRequest.getDeals()){
-            try{
-                FxDealResponse dealResponse = importDeal(dealRequest);
-                response.getSuccessfulDeals().add(dealResponse);
-                response.setSuccessCount(response.getSuccessCount()+1);
-            }
-            catch(DuplicateDealException|InvalidDealException|IllegalArgumentException e){
-                logger.warn("Deal failed at row {}: {}", rowNumber, e.getMessage());
-                DealError error= new DealError(
-                        dealRequest.getDealId(),
-                        e.getMessage(),
-                        rowNumber
-                );
-                response.getFailedDeals().add(error);
-                response.setFailureCount(response.getFailureCount()+1);
-            } catch (Exception e) {
-                logger.error("Unexpected error at row {}: {}", rowNumber, e.getMessage());
-                DealError error = new DealError(
-                        dealRequest.getDealId(),
-                        "Unexpected error: " + e.getMessage(),
-                        rowNumber
-                );
-                response.getFailedDeals().add(error);
-                response.setFailureCount(response.getFailureCount() + 1);
+        return importDealsInBatch(batchRequest, BatchResponseMode.FULL, BatchProgressListener.NONE);
+    }
+
+    public FxDealBatchResponse importDealsInBatch(FxDealBatchRequest batchRequest, BatchResponseMode mode) {
+        return importDealsInBatch(batchRequest, mode, BatchProgressListener.NONE);
+    }
+
+    public FxDealBatchResponse importDealsInBatch(FxDealBatchRequest batchRequest, BatchProgressListener progress) {
+        return importDealsInBatch(batchRequest, BatchResponseMode.FULL, progress);
+    }
+
+    public FxDealBatchResponse importDealsInBatch(FxDealBatchRequest batchRequest, BatchResponseMode mode,
+                                                  BatchProgressListener progress) {
+        List<FxDealRequest> deals = batchRequest.getDeals();
+        logger.info("Processing batch import of {} deals", deals.size());
+        metrics.recordBatchSize(deals.size());
+        FxDealBatchResponse response = new FxDealBatchResponse(mode);
+        response.setTotalRequested(deals.size());
+        int chunkSize = Math.max(1, importProperties.getChunkSize());
+        int parallelism = Math.max(1, importProperties.getParallelism());
+        ImportFailureLog failureLog = failureLogSampler.newLog();
+        long startMillis = System.currentTimeMillis();
+        if (parallelism == 1 || deals.size() <= chunkSize) {
+            for (int start = 0; start < deals.size(); start += chunkSize) {
+                List<FxDealRequest> chunk = deals.subList(start, Math.min(start + chunkSize, deals.size()));
+                addToResponse(importChunk(chunk, start + 1), response, failureLog, progress);
             }
-            rowNumber++;
+        } else {
+            importChunksInParallel(deals, chunkSize, parallelism, response, failureLog, progress);
         }
-        logger.info("Batch import completed: {} successful, {} failed",
-                response.getSuccessCount(), response.getFailureCount());
+        logger.info("Batch import completed: total={} successful={} failed={} failuresByType={} elapsedMs={}",
+                deals.size(), response.getSuccessCount(), response.getFailureCount(), failureLog,
+                System.currentTimeMillis() - startMillis);
 
         return response;
     }
 
-        public List<FxDeal> getAllDeals() {
-        return fxDealRepository.findAll();
+    // At most `parallelism` chunks are in flight; results are merged in submission order so the
+    // response lists and row numbers come out exactly as in a sequential import.
+    private void importChunksInParallel(List<FxDealRequest> deals, int chunkSize, int parallelism,
+                                        FxDealBatchResponse response, ImportFailureLog failureLog,
+                                        BatchProgressListener progress) {
+        Deque<Future<DealChunkResult>> inFlight = new ArrayDeque<>(parallelism);
+        try {
+            for (int start = 0; start < deals.size(); start += chunkSize) {
+                if (inFlight.size() == parallelism) {
+                    addToResponse(awaitChunk(inFlight.poll()), response, failureLog, progress);
+                }
+                List<FxDealRequest> chunk = deals.subList(start, Math.min(start + chunkSize, deals.size()));
+                int firstRowNumber = start + 1;
+                inFlight.add(importExecutor.submit(() -> importChunk(chunk, firstRowNumber)));
+            }
+            while (!inFlight.isEmpty()) {
+                addToResponse(awaitChunk(inFlight.poll()), response, failureLog, progress);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private DealChunkResult awaitChunk(Future<DealChunkResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while importing batch", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Chunk import failed", e.getCause());
+        }
     }
-    private void validateCurrency(String code) {
-        try{
-            Currency.getInstance(code);
+
+    // Validates the chunk in memory, resolves duplicates with a single IN lookup and
+    // writes the survivors in one JDBC batch / transaction.
+    public DealChunkResult importChunk(List<FxDealRequest> chunk, int firstRowNumber) {
+        DealChunkResult result = new DealChunkResult(firstRowNumber, chunk.size());
+        DealViolation[] rejections = new DealViolation[chunk.size()];
+        Set<String> dealIds = new HashSet<>();
+        long stageStart = metrics.start();
+        for (int i = 0; i < chunk.size(); i++) {
+            FxDealRequest request = chunk.get(i);
+            rejections[i] = dealValidator.validate(request);
+            if (request.getDealId() != null) {
+                dealIds.add(request.getDealId());
+            }
         }
-        catch (IllegalArgumentException e){
-            throw new IllegalArgumentException("Invalid currency"+code);
+        metrics.recordStage(ImportMetrics.Stage.VALIDATE, stageStart);
+
+        stageStart = metrics.start();
+        Set<String> existingIds = findExistingDealIds(dealIds);
+        metrics.recordStage(ImportMetrics.Stage.DEDUP_LOOKUP, stageStart);
+
+        Set<String> acceptedIds = new HashSet<>();
+        List<FxDeal> toInsert = new ArrayList<>();
+        int[] insertIndexes = new int[chunk.size()];
+        int duplicates = 0;
+        int invalid = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            FxDealRequest request = chunk.get(i);
+            String dealId = request.getDealId();
+            if (dealId != null && (existingIds.contains(dealId) || acceptedIds.contains(dealId))) {
+                result.failed(i, dealId, DealChunkResult.DUPLICATE, "Deal " + dealId + " already exists");
+                duplicates++;
+            } else if (rejections[i] != null) {
+                result.failed(i, dealId, rejections[i].name(), rejections[i].getMessage());
+                invalid++;
+            } else {
+                acceptedIds.add(dealId);
+                insertIndexes[toInsert.size()] = i;
+                toInsert.add(toEntity(request));
+            }
         }
+
+        stageStart = metrics.start();
+        int imported = persistChunk(toInsert, insertIndexes, result);
+        metrics.recordStage(ImportMetrics.Stage.PERSIST, stageStart);
+        int rejected = 0;
+        for (int i = 0; i < toInsert.size(); i++) {
+            if (DealError.REJECTED.equals(result.getFailureType(insertIndexes[i]))) {
+                rejected++;
+            }
+        }
+        metrics.recordOutcomes(imported, duplicates + toInsert.size() - imported - rejected, invalid + rejected);
+        return result;
+    }
+
+    public DealIdFilterStats getDealIdFilterStats() {
+        return dealIdFilter.stats();
+    }
+
+    // Only ids the filter cannot rule out are looked up; a chunk of brand-new deals skips the query.
+    private Set<String> findExistingDealIds(Set<String> dealIds) {
+        List<String> candidates = new ArrayList<>(dealIds.size());
+        for (String dealId : dealIds) {
+            if (dealIdFilter.mightContain(dealId)) {
+                candidates.add(dealId);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> existingIds = new HashSet<>(fxDealRepository.findExistingDealIds(candidates));
+        if (dealIdFilter.isReady()) {
+            dealIdFilter.recordFalsePositives(candidates.size() - existingIds.size());
+        }
+        return existingIds;
+    }
+
+    // The IN lookup already filtered known duplicates; anything the insert still skips was
+    // written by a concurrent import in the meantime.
+    private int persistChunk(List<FxDeal> deals, int[] indexes, DealChunkResult result) {
+        if (deals.isEmpty()) {
+            return 0;
+        }
+        Set<String> insertedIds;
+        try {
+            insertedIds = fxDealRepository.insertAllIfAbsent(deals);
+        } catch (DataAccessException e) {
+            if (DealJournal.isOutage(e)) {
+                throw e;
+            }
+            // A row the validator let through but the database refuses fails the whole statement;
+            // retry row by row so only that row is reported.
+            logger.warn("Chunk insert of {} deals failed, retrying row by row: {}", deals.size(),
+                    e.getMostSpecificCause().getMessage());
+            return persistRowByRow(deals, indexes, result);
+        }
+        int imported = 0;
+        for (int i = 0; i < deals.size(); i++) {
+            FxDeal deal = deals.get(i);
+            dealIdFilter.put(deal.getDealId());
+            if (insertedIds.contains(deal.getDealId())) {
+                dealCache.put(deal);
+                result.imported(indexes[i], deal);
+                imported++;
+            } else {
+                result.failed(indexes[i], deal.getDealId(), DealChunkResult.DUPLICATE,
+                        "Deal " + deal.getDealId() + " already exists");
+            }
+        }
+        return imported;
+    }
+
+    private int persistRowByRow(List<FxDeal> deals, int[] indexes, DealChunkResult result) {
+        int imported = 0;
+        for (int i = 0; i < deals.size(); i++) {
+            FxDeal deal = deals.get(i);
+            boolean inserted;
+            try {
+                inserted = fxDealRepository.insertIfAbsent(deal);
+            } catch (DataAccessException e) {
+                if (DealJournal.isOutage(e)) {
+                    throw e;
+                }
+                result.failed(indexes[i], deal.getDealId(), DealError.REJECTED,
+                        "Deal rejected by the database: " + e.getMostSpecificCause().getMessage());
+                continue;
+            }
+            dealIdFilter.put(deal.getDealId());
+            if (inserted) {
+                dealCache.put(deal);
+                result.imported(indexes[i], deal);
+                imported++;
+            } else {
+                result.failed(indexes[i], deal.getDealId(), DealChunkResult.DUPLICATE,
+                        "Deal " + deal.getDealId() + " already exists");
+            }
+        }
+        return imported;
+    }
+
+    private void addToResponse(DealChunkResult chunkResult, FxDealBatchResponse response,
+                               ImportFailureLog failureLog, BatchProgressListener progress) {
+        long stageStart = metrics.start();
+        for (int i = 0; i < chunkResult.size(); i++) {
+            FxDeal deal = chunkResult.getImportedDeal(i);
+            if (deal != null) {
+                if (response.getSuccessfulDeals() != null) {
+                    response.getSuccessfulDeals().add(createResponse(deal));
+                }
+                response.setSuccessCount(response.getSuccessCount() + 1);
+            } else {
+                DealError error = chunkResult.getFailedDeal(i);
+                failureLog.record(error.getReasonCode(), error);
+                if (response.getFailedDeals() != null) {
+                    response.getFailedDeals().add(error);
+                }
+                response.setFailureCount(response.getFailureCount() + 1);
+            }
+        }
+        metrics.recordStage(ImportMetrics.Stage.RESPONSE_BUILD, stageStart);
+        progress.onProgress(response.getSuccessCount() + response.getFailureCount(),
+                response.getSuccessCount(), response.getFailureCount());
     }
-    private FxDealResponse createResponse(FxDeal deal){
+    FxDeal toEntity(FxDealRequest request) {
+        FxDeal deal = new FxDeal(
+                request.getDealId(),
+                request.getFromCurrency(),
+                request.getToCurrency(),
+                request.getDealTimestamp(),
+                request.getDealAmount()
+        );
+        deal.setCreationDate();
+        return deal;
+    }
+    FxDealResponse createResponse(FxDeal deal){
         FxDealResponse response=new FxDealResponse();
         response.setDealId(deal.getDealId());
         response.setFromCurrency(deal.getFromCurrency());
@@ -107,4 +367,3 @@ public class FxDealService {
         return response;
     }
 }
-
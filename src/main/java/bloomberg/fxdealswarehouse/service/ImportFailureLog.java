@@ -0,0 +1,38 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.dto.DealError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// Failures of one import, counted by type for the completion summary; only a sample is logged
+// individually. Not thread-safe: results are collected on the importing thread.
+public class ImportFailureLog {
+    private static final Logger logger = LoggerFactory.getLogger(ImportFailureLog.class);
+
+    private final FailureLogSampler sampler;
+    private final Map<String, Integer> countsByType = new TreeMap<>();
+
+    ImportFailureLog(FailureLogSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    public void record(String failureType, DealError error) {
+        countsByType.merge(failureType, 1, Integer::sum);
+        if (sampler.tryAcquire()) {
+            logger.warn("Deal failed: row={} dealId={} type={} message={}",
+                    error.getRowNumber(), error.getDealId(), failureType, error.getErrorMessage());
+        }
+    }
+
+    public Map<String, Integer> getCountsByType() {
+        return countsByType;
+    }
+
+    @Override
+    public String toString() {
+        return countsByType.toString();
+    }
+}
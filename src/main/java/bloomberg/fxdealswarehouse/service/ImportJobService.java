@@ -0,0 +1,190 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.dto.BatchResponseMode;
+import bloomberg.fxdealswarehouse.dto.FxDealBatchRequest;
+import bloomberg.fxdealswarehouse.dto.FxDealBatchResponse;
+import bloomberg.fxdealswarehouse.dto.ImportJobResponse;
+import bloomberg.fxdealswarehouse.entity.ImportJob;
+import bloomberg.fxdealswarehouse.entity.JobStatus;
+import bloomberg.fxdealswarehouse.exception.JobNotFoundException;
+import bloomberg.fxdealswarehouse.exception.JobQueueFullException;
+import bloomberg.fxdealswarehouse.repository.ImportJobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+// Runs batch imports in the background. Job state lives in import_jobs so progress and the final
+// result survive a restart. Several instances share the table, so each one refreshes the heartbeat of
+// the jobs it holds, and a QUEUED or RUNNING job whose heartbeat has gone stale (its instance stopped)
+// is marked INTERRUPTED by whichever instance notices first.
+@Service
+public class ImportJobService {
+    private static final List<JobStatus> ACTIVE_STATUSES = List.of(JobStatus.QUEUED, JobStatus.RUNNING);
+
+    private final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+    private final FxDealService fxDealService;
+    private final ImportJobRepository importJobRepository;
+    private final ExecutorService jobExecutor;
+    private final ObjectMapper objectMapper;
+    private final ImportProperties.Jobs jobsConfig;
+    // jobs queued or running on this instance, whose heartbeat it keeps fresh
+    private final Set<String> ownedJobs = ConcurrentHashMap.newKeySet();
+
+    public ImportJobService(FxDealService fxDealService, ImportJobRepository importJobRepository,
+                            @Qualifier("jobExecutor") ExecutorService jobExecutor, ObjectMapper objectMapper,
+                            ImportProperties importProperties) {
+        this.fxDealService = fxDealService;
+        this.importJobRepository = importJobRepository;
+        this.jobExecutor = jobExecutor;
+        this.objectMapper = objectMapper;
+        this.jobsConfig = importProperties.getJobs();
+    }
+
+    public ImportJobResponse submit(FxDealBatchRequest request) {
+        ImportJob job = importJobRepository.save(new ImportJob(UUID.randomUUID().toString(), request.getDeals().size()));
+        ownedJobs.add(job.getJobId());
+        try {
+            jobExecutor.execute(() -> run(job.getJobId(), request));
+        } catch (RejectedExecutionException e) {
+            ownedJobs.remove(job.getJobId());
+            job.setStatus(JobStatus.FAILED);
+            job.setFinishedAt(LocalDateTime.now());
+            job.setErrorMessage("Job queue is full");
+            importJobRepository.save(job);
+            throw new JobQueueFullException("Too many import jobs queued, retry later");
+        }
+        logger.info("Import job {} queued with {} deals", job.getJobId(), job.getTotalRequested());
+        return toResponse(job);
+    }
+
+    public ImportJobResponse getJob(String jobId) {
+        return importJobRepository.findById(jobId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new JobNotFoundException("Job " + jobId + " not found"));
+    }
+
+    @Scheduled(fixedDelayString = "${fx-deals.import.jobs.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        if (!ownedJobs.isEmpty()) {
+            importJobRepository.touch(List.copyOf(ownedJobs), LocalDateTime.now());
+        }
+        markInterruptedJobs();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void markInterruptedJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        int interrupted = importJobRepository.markStaleJobs(ACTIVE_STATUSES, now.minus(jobsConfig.getStaleAfter()),
+                JobStatus.INTERRUPTED, now);
+        if (interrupted > 0) {
+            logger.warn("{} import jobs were interrupted: their instance stopped sending heartbeats", interrupted);
+        }
+    }
+
+    void run(String jobId, FxDealBatchRequest request) {
+        try {
+            runOwned(jobId, request);
+        } finally {
+            ownedJobs.remove(jobId);
+        }
+    }
+
+    private void runOwned(String jobId, FxDealBatchRequest request) {
+        ImportJob job = importJobRepository.findById(jobId).orElseThrow();
+        job.setStatus(JobStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job.setHeartbeatAt(job.getStartedAt());
+        importJobRepository.save(job);
+        try {
+            // the stored result is read back on every status poll, so it keeps the failures, not every imported deal
+            FxDealBatchResponse response = fxDealService.importDealsInBatch(request, BatchResponseMode.FAILURES,
+                    (processed, successCount, failureCount) ->
+                            importJobRepository.updateProgress(jobId, processed, successCount, failureCount));
+            job.setProcessedCount(response.getTotalRequested());
+            job.setSuccessCount(response.getSuccessCount());
+            job.setFailureCount(response.getFailureCount());
+            job.setResult(objectMapper.writeValueAsString(response));
+            job.setStatus(JobStatus.COMPLETED);
+            logger.info("Import job {} completed: {} successful, {} failed",
+                    jobId, response.getSuccessCount(), response.getFailureCount());
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.error("Import job {} failed", jobId, e);
+            job.setStatus(JobStatus.FAILED);
+            job.setErrorMessage(e.getMessage());
+            try {
+                ImportJob latest = importJobRepository.findById(jobId).orElse(job);
+                job.setProcessedCount(latest.getProcessedCount());
+                job.setSuccessCount(latest.getSuccessCount());
+                job.setFailureCount(latest.getFailureCount());
+            } catch (RuntimeException progressError) {
+                logger.warn("Could not read the progress of import job {}", jobId, progressError);
+            }
+        }
+        job.setFinishedAt(LocalDateTime.now());
+        saveOutcome(job);
+    }
+
+    // A job must never stay RUNNING: if its final state cannot be stored, it is at least marked FAILED.
+    private void saveOutcome(ImportJob job) {
+        try {
+            importJobRepository.save(job);
+        } catch (RuntimeException e) {
+            logger.error("Could not store the outcome of import job {}", job.getJobId(), e);
+            String errorMessage = ImportJob.fitErrorMessage("Could not store the job outcome: " + e.getMessage());
+            try {
+                importJobRepository.markFinished(job.getJobId(), JobStatus.FAILED, errorMessage, job.getFinishedAt());
+            } catch (RuntimeException markError) {
+                // left RUNNING until the next startup reports it as INTERRUPTED
+                logger.error("Could not mark import job {} as failed", job.getJobId(), markError);
+            }
+        }
+    }
+
+    private ImportJobResponse toResponse(ImportJob job) {
+        ImportJobResponse response = new ImportJobResponse();
+        response.setJobId(job.getJobId());
+        response.setStatus(job.getStatus());
+        response.setTotalRequested(job.getTotalRequested());
+        response.setProcessedCount(job.getProcessedCount());
+        response.setSuccessCount(job.getSuccessCount());
+        response.setFailureCount(job.getFailureCount());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setStartedAt(job.getStartedAt());
+        response.setFinishedAt(job.getFinishedAt());
+        response.setErrorMessage(job.getErrorMessage());
+        if (job.getStartedAt() != null) {
+            LocalDateTime end = job.getFinishedAt() != null ? job.getFinishedAt() : LocalDateTime.now();
+            double seconds = Math.max(Duration.between(job.getStartedAt(), end).toMillis(), 1) / 1000.0;
+            double dealsPerSecond = job.getProcessedCount() / seconds;
+            response.setDealsPerSecond(dealsPerSecond);
+            if (job.getStatus() == JobStatus.RUNNING && dealsPerSecond > 0) {
+                response.setEstimatedSecondsRemaining(
+                        (long) Math.ceil((job.getTotalRequested() - job.getProcessedCount()) / dealsPerSecond));
+            }
+        }
+        if (job.getResult() != null) {
+            try {
+                response.setResult(objectMapper.readValue(job.getResult(), FxDealBatchResponse.class));
+            } catch (JsonProcessingException e) {
+                logger.error("Stored result of job {} is unreadable", job.getJobId(), e);
+            }
+        }
+        return response;
+    }
+}
@@ -0,0 +1,146 @@
+package bloomberg.fxdealswarehouse.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Import path meters, registered once and recorded per chunk (not per deal) so they can stay on
+// under full load. Exposed through /actuator/prometheus.
+@Component
+public class ImportMetrics {
+
+    public enum Stage {
+        PARSE("parse"),
+        VALIDATE("validate"),
+        DEDUP_LOOKUP("dedup_lookup"),
+        PERSIST("persist"),
+        RESPONSE_BUILD("response_build");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Timer[] stageTimers = new Timer[Stage.values().length];
+    private final Counter imported;
+    private final Counter duplicates;
+    private final Counter invalid;
+    private final Counter journaled;
+    private final DistributionSummary batchSize;
+    private final DistributionSummary groupCommitSize;
+    private final Map<String, CompressionMeters> compressionMeters = new HashMap<>();
+
+    public ImportMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers[stage.ordinal()] = Timer.builder("fx.deals.import.stage")
+                    .description("Time spent in each stage of the deal import path")
+                    .tag("stage", stage.tag)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+        imported = outcomeCounter(registry, "imported");
+        duplicates = outcomeCounter(registry, "duplicate");
+        invalid = outcomeCounter(registry, "invalid");
+        journaled = outcomeCounter(registry, "journaled");
+        batchSize = DistributionSummary.builder("fx.deals.import.batch.size")
+                .description("Number of deals per batch, stream or bulk import")
+                .baseUnit("deals")
+                .publishPercentileHistogram()
+                .register(registry);
+        groupCommitSize = DistributionSummary.builder("fx.deals.import.group.commit.size")
+                .description("Number of single-deal imports written per group commit")
+                .baseUnit("deals")
+                .publishPercentileHistogram()
+                .register(registry);
+        for (String direction : new String[]{"request", "response"}) {
+            for (String encoding : new String[]{"gzip", "zstd"}) {
+                compressionMeters.put(direction + "/" + encoding, new CompressionMeters(registry, direction, encoding));
+            }
+        }
+    }
+
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void recordStage(Stage stage, long startNanos) {
+        recordStageNanos(stage, System.nanoTime() - startNanos);
+    }
+
+    public void recordStageNanos(Stage stage, long nanos) {
+        stageTimers[stage.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOutcomes(int importedDeals, int duplicateDeals, int invalidDeals) {
+        if (importedDeals > 0) {
+            imported.increment(importedDeals);
+        }
+        if (duplicateDeals > 0) {
+            duplicates.increment(duplicateDeals);
+        }
+        if (invalidDeals > 0) {
+            invalid.increment(invalidDeals);
+        }
+    }
+
+    public void recordJournaled(int journaledDeals) {
+        journaled.increment(journaledDeals);
+    }
+
+    public void recordBatchSize(int deals) {
+        batchSize.record(deals);
+    }
+
+    public void recordGroupCommit(int deals) {
+        groupCommitSize.record(deals);
+    }
+
+    // One compressed request or response body; direction is "request" or "response".
+    public void recordCompression(String direction, String encoding, long compressedBytes, long uncompressedBytes,
+                                  long cpuNanos) {
+        CompressionMeters meters = compressionMeters.get(direction + "/" + encoding);
+        if (meters == null || compressedBytes == 0) {
+            return;
+        }
+        meters.ratio.record((double) uncompressedBytes / compressedBytes);
+        meters.compressedSize.record(compressedBytes);
+        meters.cpu.record(cpuNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Counter outcomeCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("fx.deals.import.deals")
+                .description("Deals processed by the import path, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static final class CompressionMeters {
+        private final DistributionSummary ratio;
+        private final DistributionSummary compressedSize;
+        private final Timer cpu;
+
+        private CompressionMeters(MeterRegistry registry, String direction, String encoding) {
+            ratio = DistributionSummary.builder("fx.deals.http.compression.ratio")
+                    .description("Uncompressed size divided by compressed size, per request or response body")
+                    .tags("direction", direction, "encoding", encoding)
+                    .register(registry);
+            compressedSize = DistributionSummary.builder("fx.deals.http.compression.compressed.size")
+                    .description("Compressed size of request and response bodies")
+                    .tags("direction", direction, "encoding", encoding)
+                    .baseUnit("bytes")
+                    .register(registry);
+            cpu = Timer.builder("fx.deals.http.compression.cpu")
+                    .description("Thread CPU time spent compressing or decompressing one body")
+                    .tags("direction", direction, "encoding", encoding)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.dto.DealError;
+import bloomberg.fxdealswarehouse.dto.DealRowResult;
+import bloomberg.fxdealswarehouse.dto.FxDealRequest;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Imports newline-delimited JSON deals without materialising the upload: deals are read one
+// at a time, imported a chunk at a time, and each chunk's results are written out before the next is read.
+@Service
+public class NdjsonDealImporter {
+    private final Logger logger = LoggerFactory.getLogger(NdjsonDealImporter.class);
+    private final FxDealService fxDealService;
+    private final ImportProperties importProperties;
+    private final ImportMetrics metrics;
+    private final FailureLogSampler failureLogSampler;
+    private final NdjsonDealParser dealParser;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter resultWriter;
+
+    public NdjsonDealImporter(FxDealService fxDealService, ImportProperties importProperties,
+                              ImportMetrics metrics, FailureLogSampler failureLogSampler, NdjsonDealParser dealParser,
+                              ObjectMapper objectMapper) {
+        this.fxDealService = fxDealService;
+        this.importProperties = importProperties;
+        this.metrics = metrics;
+        this.failureLogSampler = failureLogSampler;
+        this.dealParser = dealParser;
+        this.objectMapper = objectMapper;
+        this.resultWriter = objectMapper.writerFor(DealRowResult.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void importStream(InputStream in, OutputStream out) throws IOException {
+        int chunkSize = Math.max(1, importProperties.getChunkSize());
+        List<FxDealRequest> chunk = new ArrayList<>(chunkSize);
+        int rowNumber;
+        int firstRowOfChunk = 1;
+        int successCount = 0;
+        int failureCount = 0;
+        // parse time is summed per deal and recorded once per chunk
+        long parseNanos = 0;
+        ImportFailureLog failureLog = failureLogSampler.newLog();
+        try (NdjsonDealParser.Rows rows = dealParser.open(in);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+
+            while (true) {
+                long parseStart = metrics.start();
+                boolean more;
+                try {
+                    more = rows.next();
+                } finally {
+                    parseNanos += System.nanoTime() - parseStart;
+                }
+                if (!more) {
+                    break;
+                }
+                FxDealRequest deal = rows.getDeal();
+                if (deal != null) {
+                    chunk.add(deal);
+                    if (chunk.size() < chunkSize) {
+                        continue;
+                    }
+                }
+                metrics.recordStageNanos(ImportMetrics.Stage.PARSE, parseNanos);
+                parseNanos = 0;
+                int imported = writeChunk(chunk, firstRowOfChunk, generator, failureLog);
+                successCount += imported;
+                failureCount += chunk.size() - imported;
+                chunk.clear();
+                if (deal == null) {
+                    writeFailure(generator, failureLog, rows.getError());
+                    metrics.recordOutcomes(0, 0, 1);
+                    failureCount++;
+                }
+                firstRowOfChunk = rows.getRowNumber() + 1;
+            }
+            metrics.recordStageNanos(ImportMetrics.Stage.PARSE, parseNanos);
+            int imported = writeChunk(chunk, firstRowOfChunk, generator, failureLog);
+            successCount += imported;
+            failureCount += chunk.size() - imported;
+            rowNumber = rows.getRowNumber();
+            if (rowNumber > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        metrics.recordBatchSize(rowNumber);
+        logger.info("Streaming import completed: total={} successful={} failed={} failuresByType={}",
+                rowNumber, successCount, failureCount, failureLog);
+    }
+
+    private int writeChunk(List<FxDealRequest> chunk, int firstRowNumber, JsonGenerator generator,
+                           ImportFailureLog failureLog) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        DealChunkResult result = fxDealService.importChunk(chunk, firstRowNumber);
+        long responseStart = metrics.start();
+        int imported = 0;
+        for (int i = 0; i < result.size(); i++) {
+            FxDeal deal = result.getImportedDeal(i);
+            if (deal != null) {
+                write(generator, new DealRowResult(firstRowNumber + i, deal.getDealId(),
+                        DealRowResult.IMPORTED, "Deal imported successfully"));
+                imported++;
+            } else {
+                DealError error = result.getFailedDeal(i);
+                failureLog.record(error.getReasonCode(), error);
+                write(generator, new DealRowResult(error.getRowNumber(), error.getDealId(),
+                        DealRowResult.FAILED, error.getReasonCode(), error.getErrorMessage()));
+            }
+        }
+        generator.flush();
+        metrics.recordStage(ImportMetrics.Stage.RESPONSE_BUILD, responseStart);
+        return imported;
+    }
+
+    private void writeFailure(JsonGenerator generator, ImportFailureLog failureLog, DealError error) throws IOException {
+        failureLog.record(error.getReasonCode(), error);
+        write(generator, new DealRowResult(error.getRowNumber(), null, DealRowResult.FAILED,
+                error.getReasonCode(), error.getErrorMessage()));
+    }
+
+    private void write(JsonGenerator generator, DealRowResult result) throws IOException {
+        resultWriter.writeValue(generator, result);
+    }
+}
@@ -0,0 +1,111 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.dto.DealError;
+import bloomberg.fxdealswarehouse.dto.FxDealRequest;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Reads NDJSON deal uploads row by row for both the streaming import and the bulk loader, so the two
+// agree on what a malformed row is: a row that is not a JSON object, or whose values do not map onto
+// FxDealRequest, fails on its own and reading goes on; a JSON syntax error fails its row and ends the
+// stream, since the parser cannot resynchronise after it.
+@Component
+public class NdjsonDealParser {
+    private final ObjectMapper objectMapper;
+    private final ObjectReader dealReader;
+
+    public NdjsonDealParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.dealReader = objectMapper.readerFor(FxDealRequest.class);
+    }
+
+    // The caller keeps ownership of the input stream.
+    public Rows open(InputStream in) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(in);
+        parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        return new Rows(parser);
+    }
+
+    public final class Rows implements Closeable {
+        private final JsonParser parser;
+        private int rowNumber;
+        private FxDealRequest deal;
+        private DealError error;
+        private boolean stopped;
+
+        private Rows(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        // Moves to the next row; false at the end of the input or after the row that stopped it.
+        public boolean next() throws IOException {
+            deal = null;
+            error = null;
+            if (stopped) {
+                return false;
+            }
+            rowNumber++;
+            try {
+                if (parser.nextToken() == null) {
+                    rowNumber--;
+                    stopped = true;
+                    return false;
+                }
+                deal = readDeal();
+                if (deal == null) {
+                    error = new DealError(null, DealError.MALFORMED, "Malformed deal", rowNumber);
+                }
+            } catch (StreamReadException e) {
+                stopped = true;
+                error = new DealError(null, DealError.MALFORMED,
+                        "Malformed NDJSON, import stopped: " + e.getOriginalMessage(), rowNumber);
+            }
+            return true;
+        }
+
+        // 1-based number of the current row; after the last one, the number of rows read.
+        public int getRowNumber() {
+            return rowNumber;
+        }
+
+        // The current deal, or null when the row is malformed.
+        public FxDealRequest getDeal() {
+            return deal;
+        }
+
+        // Why the current row is malformed, or null when it parsed.
+        public DealError getError() {
+            return error;
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+
+        // A bad value inside one line only skips that deal; the rest of the stream is still read.
+        private FxDealRequest readDeal() throws IOException {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return null;
+            }
+            try {
+                return dealReader.readValue(parser);
+            } catch (JsonMappingException e) {
+                while (!parser.getParsingContext().inRoot() && parser.nextToken() != null) {
+                    // skip the remainder of the offending object
+                }
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.PartitioningProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps partitions of fx_deals created ahead of time so inserts never fall into the default partition,
+// and detaches the ones older than the retention window. The DDL itself lives in the V4 partitioning migration.
+// A run that fails, or a partition that could not be created, increments fx.deals.partitions.maintenance.failures;
+// fx.deals.partitions.maintenance.last.success going stale is the other signal to alert on.
+@Component
+@ConditionalOnProperty(prefix = "fx-deals.partitioning", name = "enabled", havingValue = "true")
+public class PartitionMaintainer {
+    private static final String ENSURE_PARTITIONS_SQL =
+            "SELECT partition_table, moved_rows, failure FROM fx_deals_ensure_partitions(?, ?, ?)";
+    private static final String DETACH_PARTITIONS_SQL = "SELECT fx_deals_detach_partitions(?, ?)";
+
+    private final Logger logger = LoggerFactory.getLogger(PartitionMaintainer.class);
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitioningProperties properties;
+    private final Counter failures;
+    private final AtomicLong lastSuccess = new AtomicLong();
+
+    public PartitionMaintainer(JdbcTemplate jdbcTemplate, PartitioningProperties properties, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.failures = Counter.builder("fx.deals.partitions.maintenance.failures")
+                .description("Partition maintenance runs that failed and partitions that could not be created")
+                .register(registry);
+        Gauge.builder("fx.deals.partitions.maintenance.last.success", lastSuccess, AtomicLong::get)
+                .description("Epoch second of the last partition maintenance run without failures")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${fx-deals.partitioning.cron:0 5 0 * * *}")
+    public void maintain() {
+        try {
+            maintain(LocalDateTime.now());
+        } catch (DataAccessException e) {
+            failures.increment();
+            logger.error("Partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    void maintain(LocalDateTime now) {
+        PartitioningProperties.Interval interval = properties.getInterval();
+        LocalDateTime horizon = interval.plus(now, Math.max(0, properties.getPrecreate()));
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(ENSURE_PARTITIONS_SQL,
+                interval.sqlName(), now, horizon);
+        int failed = 0;
+        for (Map<String, Object> partition : partitions) {
+            Object failure = partition.get("failure");
+            if (failure != null) {
+                failed++;
+                logger.error("Could not create partition {}: {}", partition.get("partition_table"), failure);
+            } else if (((Number) partition.get("moved_rows")).longValue() > 0) {
+                logger.warn("Moved {} rows from fx_deals_default into new partition {}",
+                        partition.get("moved_rows"), partition.get("partition_table"));
+            }
+        }
+        logger.info("Partitions of fx_deals ready up to {}; {} created, {} failed",
+                horizon, partitions.size() - failed, failed);
+
+        if (properties.getRetention() > 0) {
+            LocalDateTime cutoff = interval.plus(interval.periodStart(now), -properties.getRetention());
+            List<String> detached = jdbcTemplate.queryForList(DETACH_PARTITIONS_SQL, String.class,
+                    interval.sqlName(), cutoff);
+            if (!detached.isEmpty()) {
+                logger.info("Detached partitions older than {}: {}", cutoff, detached);
+            }
+        }
+
+        if (failed > 0) {
+            failures.increment(failed);
+        } else {
+            lastSuccess.set(now.atZone(ZoneId.systemDefault()).toEpochSecond());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- Matches the schema previously generated by ddl-auto=update, so existing databases baseline cleanly.
+CREATE TABLE IF NOT EXISTS fx_deals (
+    deal_id        VARCHAR(255)   NOT NULL PRIMARY KEY,
+    from_currency  VARCHAR(3)     NOT NULL,
+    to_currency    VARCHAR(3)     NOT NULL,
+    deal_timestamp TIMESTAMP(6)   NOT NULL,
+    deal_amount    NUMERIC(38, 2) NOT NULL,
+    created_at     TIMESTAMP(6)
+);
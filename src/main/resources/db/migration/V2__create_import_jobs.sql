@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS import_jobs (
+    job_id          VARCHAR(36)  NOT NULL PRIMARY KEY,
+    status          VARCHAR(16)  NOT NULL,
+    total_requested INTEGER      NOT NULL,
+    processed_count INTEGER      NOT NULL,
+    success_count   INTEGER      NOT NULL,
+    failure_count   INTEGER      NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    started_at      TIMESTAMP(6),
+    finished_at     TIMESTAMP(6),
+    heartbeat_at    TIMESTAMP(6) NOT NULL,
+    error_message   VARCHAR(255),
+    result          TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_import_jobs_status_heartbeat ON import_jobs (status, heartbeat_at);
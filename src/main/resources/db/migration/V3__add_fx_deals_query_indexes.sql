@@ -0,0 +1,6 @@
+-- Currency-pair + time-range lookups: equality on the pair, range on the timestamp.
+-- deal_id is the keyset tie-breaker of GET /api/deals, so ordered pages are read straight off the index.
+CREATE INDEX IF NOT EXISTS idx_fx_deals_pair_timestamp ON fx_deals (from_currency, to_currency, deal_timestamp, deal_id);
+
+-- Time-range lookups and the unfiltered listing.
+CREATE INDEX IF NOT EXISTS idx_fx_deals_timestamp ON fx_deals (deal_timestamp, deal_id);
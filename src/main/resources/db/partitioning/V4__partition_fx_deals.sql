@@ -0,0 +1,131 @@
+-- Opt-in (profile "partitioned", PostgreSQL 13+): rebuilds fx_deals as a table range-partitioned on
+-- deal_timestamp by ${interval}. A partitioned table can only enforce uniqueness on keys that
+-- include deal_timestamp, so global deal_id uniqueness moves to the fx_deal_ids registry.
+
+CREATE TABLE fx_deal_ids (
+    deal_id VARCHAR(255) NOT NULL PRIMARY KEY
+);
+
+CREATE OR REPLACE FUNCTION fx_deals_partition_suffix_format(p_interval TEXT)
+RETURNS TEXT LANGUAGE plpgsql IMMUTABLE AS $$
+BEGIN
+    CASE p_interval
+        WHEN 'day' THEN RETURN 'YYYYMMDD';
+        WHEN 'month' THEN RETURN 'YYYYMM';
+        ELSE RAISE EXCEPTION 'Unsupported partition interval: %', p_interval;
+    END CASE;
+END $$;
+
+-- Creates the missing partitions fx_deals_pYYYYMM[DD] from the one holding p_from to the one holding p_to and
+-- returns one row per partition it touched. Rows that already landed in fx_deals_default for a new range are
+-- moved into the partition before it is attached, since PostgreSQL refuses to create a partition whose rows
+-- sit in the default one. A range that still fails is rolled back on its own, reported in failure, and the
+-- remaining ranges are still created.
+CREATE OR REPLACE FUNCTION fx_deals_ensure_partitions(p_interval TEXT, p_from TIMESTAMP, p_to TIMESTAMP)
+RETURNS TABLE (partition_table TEXT, moved_rows BIGINT, failure TEXT) LANGUAGE plpgsql AS $$
+DECLARE
+    suffix_format TEXT := fx_deals_partition_suffix_format(p_interval);
+    step INTERVAL := ('1 ' || p_interval)::INTERVAL;
+    bound TIMESTAMP := date_trunc(p_interval, p_from);
+BEGIN
+    WHILE bound <= p_to LOOP
+        partition_table := 'fx_deals_p' || to_char(bound, suffix_format);
+        moved_rows := 0;
+        failure := NULL;
+        IF to_regclass(partition_table) IS NULL THEN
+            BEGIN
+                IF EXISTS (SELECT 1 FROM fx_deals_default
+                           WHERE deal_timestamp >= bound AND deal_timestamp < bound + step) THEN
+                    EXECUTE format('CREATE TABLE %I (LIKE fx_deals INCLUDING DEFAULTS)', partition_table);
+                    EXECUTE format('WITH moved AS (DELETE FROM fx_deals_default '
+                                   'WHERE deal_timestamp >= %L AND deal_timestamp < %L RETURNING *) '
+                                   'INSERT INTO %I SELECT * FROM moved', bound, bound + step, partition_table);
+                    GET DIAGNOSTICS moved_rows = ROW_COUNT;
+                    EXECUTE format('ALTER TABLE fx_deals ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                                   partition_table, bound, bound + step);
+                ELSE
+                    EXECUTE format('CREATE TABLE %I PARTITION OF fx_deals FOR VALUES FROM (%L) TO (%L)',
+                                   partition_table, bound, bound + step);
+                END IF;
+            EXCEPTION WHEN OTHERS THEN
+                moved_rows := 0;
+                failure := SQLERRM;
+                RAISE WARNING 'Could not create partition %: %', partition_table, SQLERRM;
+            END;
+            RETURN NEXT;
+        END IF;
+        bound := bound + step;
+    END LOOP;
+END $$;
+
+-- Detaches (does not drop) the partitions that end on or before p_before and returns their names.
+-- Their deal ids stay in fx_deal_ids, so archived deals are still reported as duplicates.
+CREATE OR REPLACE FUNCTION fx_deals_detach_partitions(p_interval TEXT, p_before TIMESTAMP)
+RETURNS SETOF TEXT LANGUAGE plpgsql AS $$
+DECLARE
+    suffix_format TEXT := fx_deals_partition_suffix_format(p_interval);
+    step INTERVAL := ('1 ' || p_interval)::INTERVAL;
+    partition_name TEXT;
+BEGIN
+    FOR partition_name IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'fx_deals'::regclass
+          AND c.relname ~ ('^fx_deals_p[0-9]{' || length(suffix_format) || '}$')
+        ORDER BY c.relname
+    LOOP
+        IF to_timestamp(substr(partition_name, 11), suffix_format)::TIMESTAMP + step <= p_before THEN
+            EXECUTE format('ALTER TABLE fx_deals DETACH PARTITION %I', partition_name);
+            RETURN NEXT partition_name;
+        END IF;
+    END LOOP;
+END $$;
+
+ALTER TABLE fx_deals RENAME TO fx_deals_unpartitioned;
+DROP INDEX IF EXISTS idx_fx_deals_pair_timestamp;
+DROP INDEX IF EXISTS idx_fx_deals_timestamp;
+DO $$
+DECLARE
+    pk TEXT;
+BEGIN
+    SELECT conname INTO pk FROM pg_constraint
+    WHERE conrelid = 'fx_deals_unpartitioned'::regclass AND contype = 'p';
+    IF pk IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE fx_deals_unpartitioned RENAME CONSTRAINT %I TO fx_deals_unpartitioned_pkey', pk);
+    END IF;
+END $$;
+
+CREATE TABLE fx_deals (
+    deal_id        VARCHAR(255)   NOT NULL,
+    from_currency  VARCHAR(3)     NOT NULL,
+    to_currency    VARCHAR(3)     NOT NULL,
+    deal_timestamp TIMESTAMP(6)   NOT NULL,
+    deal_amount    NUMERIC(38, 2) NOT NULL,
+    created_at     TIMESTAMP(6),
+    PRIMARY KEY (deal_id, deal_timestamp)
+) PARTITION BY RANGE (deal_timestamp);
+
+-- Defined on the parent, created on every partition, so each insert only touches the hot partition's indexes.
+CREATE INDEX idx_fx_deals_pair_timestamp ON fx_deals (from_currency, to_currency, deal_timestamp, deal_id);
+CREATE INDEX idx_fx_deals_timestamp ON fx_deals (deal_timestamp, deal_id);
+
+-- Catches deals older than the first partition or beyond the pre-created horizon.
+CREATE TABLE fx_deals_default PARTITION OF fx_deals DEFAULT;
+
+-- Partitions are only created for the last ${backfill} periods up to the pre-created horizon; older (and far
+-- future-dated) rows stay in fx_deals_default rather than becoming one table per period of history.
+SELECT * FROM fx_deals_ensure_partitions(
+        lower('${interval}'),
+        GREATEST(COALESCE((SELECT min(deal_timestamp) FROM fx_deals_unpartitioned), now()::TIMESTAMP),
+                 now()::TIMESTAMP - ${backfill} * ('1 ' || lower('${interval}'))::INTERVAL),
+        LEAST(GREATEST((SELECT max(deal_timestamp) FROM fx_deals_unpartitioned), now()::TIMESTAMP),
+              now()::TIMESTAMP + ${precreate} * ('1 ' || lower('${interval}'))::INTERVAL));
+
+INSERT INTO fx_deals (deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at)
+SELECT deal_id, from_currency, to_currency, deal_timestamp, deal_amount, created_at FROM fx_deals_unpartitioned;
+
+INSERT INTO fx_deal_ids (deal_id)
+SELECT deal_id FROM fx_deals_unpartitioned;
+
+DROP TABLE fx_deals_unpartitioned;
+
+ANALYZE fx_deals;
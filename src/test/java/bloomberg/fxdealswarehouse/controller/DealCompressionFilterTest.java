@@ -0,0 +1,212 @@
+package bloomberg.fxdealswarehouse.controller;
+
+import bloomberg.fxdealswarehouse.config.CompressionProperties;
+import bloomberg.fxdealswarehouse.exception.ContentDecodingException;
+import bloomberg.fxdealswarehouse.service.ImportMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.luben.zstd.ZstdInputStream;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealCompressionFilterTest {
+    private static final String BODY = "{\"dealId\":\"DEAL001\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\"}\n"
+            .repeat(50);
+
+    private SimpleMeterRegistry registry;
+    private DealCompressionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new DealCompressionFilter(new CompressionProperties(), new ImportMetrics(registry),
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void gzipRequest_ShouldBeDecodedAsTheHandlerReadsIt() throws Exception {
+        MockHttpServletRequest request = dealsRequest();
+        request.addHeader("Content-Encoding", "gzip");
+        request.setContent(gzip(BODY));
+        AtomicReference<String> received = new AtomicReference<>();
+        AtomicReference<String> encodingSeen = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            encodingSeen.set(((HttpServletRequest) req).getHeader("Content-Encoding"));
+            received.set(new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        });
+
+        assertEquals(BODY, received.get());
+        assertNull(encodingSeen.get());
+        DistributionSummary ratio = registry.get("fx.deals.http.compression.ratio")
+                .tags("direction", "request", "encoding", "gzip").summary();
+        assertEquals(1, ratio.count());
+        assertTrue(ratio.totalAmount() > 1);
+    }
+
+    @Test
+    void response_WithGzipAccepted_ShouldBeCompressed() throws Exception {
+        MockHttpServletRequest request = dealsRequest();
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, writing(BODY));
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertEquals(BODY, decode(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+        assertEquals(1, registry.get("fx.deals.http.compression.cpu")
+                .tags("direction", "response", "encoding", "gzip").timer().count());
+    }
+
+    @Test
+    void response_WithZstdAndGzipAccepted_ShouldPreferZstd() throws Exception {
+        MockHttpServletRequest request = dealsRequest();
+        request.addHeader("Accept-Encoding", "gzip, zstd");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, writing(BODY));
+
+        assertEquals("zstd", response.getHeader("Content-Encoding"));
+        assertEquals(BODY, decode(new ZstdInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    @Test
+    void response_WithoutBody_ShouldNotBeMarkedAsEncoded() throws Exception {
+        MockHttpServletRequest request = dealsRequest();
+        request.addHeader("Accept-Encoding", "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> ((HttpServletResponse) res).setStatus(204));
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void response_BelowMinimumSize_ShouldPassThroughUncompressed() throws Exception {
+        MockHttpServletRequest request = dealsRequest();
+        request.addHeader("Accept-Encoding", "gzip, zstd");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String small = "{\"dealId\":\"DEAL001\"}";
+
+        filter.doFilter(request, response, writing(small));
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertEquals(small, response.getContentAsString());
+        assertEquals(0, registry.get("fx.deals.http.compression.cpu")
+                .tags("direction", "response", "encoding", "zstd").timer().count());
+    }
+
+    @Test
+    void request_WithUnsupportedEncoding_ShouldReturn415() throws Exception {
+        MockHttpServletRequest request = dealsRequest();
+        request.addHeader("Content-Encoding", "br");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> fail("handler must not run"));
+
+        assertEquals(415, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Unsupported Content-Encoding: br"));
+    }
+
+    @Test
+    void request_WithCorruptGzipHeader_ShouldReturn400() throws Exception {
+        MockHttpServletRequest request = dealsRequest();
+        request.addHeader("Content-Encoding", "gzip");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> fail("handler must not run"));
+
+        assertEquals(400, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Request body is not valid gzip"));
+    }
+
+    @Test
+    void request_WithTruncatedBody_ShouldFailTheReadWithAContentDecodingException() throws Exception {
+        byte[] compressed = gzip(BODY);
+        MockHttpServletRequest request = dealsRequest();
+        request.addHeader("Content-Encoding", "gzip");
+        request.setContent(Arrays.copyOf(compressed, compressed.length / 2));
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            try {
+                req.getInputStream().readAllBytes();
+            } catch (IOException e) {
+                failure.set(e);
+            }
+        });
+
+        assertInstanceOf(ContentDecodingException.class, failure.get());
+    }
+
+    @Test
+    void pathsOutsideTheDealEndpoints_ShouldBeLeftAlone() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        request.addHeader("Accept-Encoding", "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, writing(BODY));
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(BODY, response.getContentAsString());
+    }
+
+    @Test
+    void negotiate_ShouldHonourQualityValues() {
+        assertEquals("gzip", DealCompressionFilter.negotiate("zstd;q=0, gzip;q=0.5"));
+        assertEquals("gzip", DealCompressionFilter.negotiate("*"));
+        assertNull(DealCompressionFilter.negotiate("identity, gzip;q=0"));
+        assertNull(DealCompressionFilter.negotiate("gzip;q=0, *"));
+        assertNull(DealCompressionFilter.negotiate("*, gzip;q=0"));
+        assertEquals("gzip", DealCompressionFilter.negotiate("zstd;q=0, *"));
+        assertNull(DealCompressionFilter.negotiate(null));
+    }
+
+    private static MockHttpServletRequest dealsRequest() {
+        return new MockHttpServletRequest("POST", "/api/deals/batch");
+    }
+
+    private static FilterChain writing(String body) {
+        return (req, res) -> {
+            res.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+            res.getOutputStream().flush();
+        };
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String decode(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -1,10 +1,25 @@
 package bloomberg.fxdealswarehouse.controller;
 
+import bloomberg.fxdealswarehouse.config.CompressionProperties;
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.config.QueryProperties;
 import bloomberg.fxdealswarehouse.dto.*;
 import bloomberg.fxdealswarehouse.entity.FxDeal;
+import bloomberg.fxdealswarehouse.exception.DealNotFoundException;
 import bloomberg.fxdealswarehouse.exception.DuplicateDealException;
+import bloomberg.fxdealswarehouse.entity.JobStatus;
 import bloomberg.fxdealswarehouse.exception.InvalidDealException;
+import bloomberg.fxdealswarehouse.exception.InvalidQueryException;
+import bloomberg.fxdealswarehouse.exception.JobNotFoundException;
+import bloomberg.fxdealswarehouse.service.BinaryDealCodec;
+import bloomberg.fxdealswarehouse.service.BinaryDealImporter;
+import bloomberg.fxdealswarehouse.service.BulkDealLoader;
+import bloomberg.fxdealswarehouse.service.DealExporter;
+import bloomberg.fxdealswarehouse.service.FxDealQueryService;
 import bloomberg.fxdealswarehouse.service.FxDealService;
+import bloomberg.fxdealswarehouse.service.ImportJobService;
+import bloomberg.fxdealswarehouse.service.ImportMetrics;
+import bloomberg.fxdealswarehouse.service.NdjsonDealImporter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -13,14 +28,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -37,6 +58,38 @@ class FxDealControllerTest {
     @MockBean
     private FxDealService fxDealService;
 
+    @MockBean
+    private NdjsonDealImporter ndjsonDealImporter;
+
+    @MockBean
+    private ImportJobService importJobService;
+
+    @MockBean
+    private FxDealQueryService fxDealQueryService;
+
+    @MockBean
+    private DealExporter dealExporter;
+
+    @MockBean
+    private BulkDealLoader bulkDealLoader;
+
+    @MockBean
+    private BinaryDealImporter binaryDealImporter;
+
+    // required by BatchParseTimingAdvice
+    @MockBean
+    private ImportMetrics importMetrics;
+
+    @MockBean
+    private ImportProperties importProperties;
+
+    @MockBean
+    private QueryProperties queryProperties;
+
+    // a mock reports compression as disabled, which keeps DealCompressionFilter out of these requests
+    @MockBean
+    private CompressionProperties compressionProperties;
+
     private FxDealRequest validRequest;
     private FxDealResponse validResponse;
 
@@ -175,7 +228,7 @@ class FxDealControllerTest {
         batchResponse.setSuccessCount(2);
         batchResponse.setFailureCount(0);
 
-        when(fxDealService.importDealsInBatch(any(FxDealBatchRequest.class)))
+        when(fxDealService.importDealsInBatch(any(FxDealBatchRequest.class), eq(BatchResponseMode.FULL)))
                 .thenReturn(batchResponse);
 
         mockMvc.perform(post("/api/deals/batch")
@@ -186,7 +239,7 @@ class FxDealControllerTest {
                 .andExpect(jsonPath("$.successCount").value(2))
                 .andExpect(jsonPath("$.failureCount").value(0));
 
-        verify(fxDealService, times(1)).importDealsInBatch(any(FxDealBatchRequest.class));
+        verify(fxDealService, times(1)).importDealsInBatch(any(FxDealBatchRequest.class), eq(BatchResponseMode.FULL));
     }
 
     @Test
@@ -203,7 +256,7 @@ class FxDealControllerTest {
         batchResponse.setFailureCount(1);
         batchResponse.getFailedDeals().add(new DealError("DEAL002", "Duplicate deal", 2));
 
-        when(fxDealService.importDealsInBatch(any(FxDealBatchRequest.class)))
+        when(fxDealService.importDealsInBatch(any(FxDealBatchRequest.class), eq(BatchResponseMode.FULL)))
                 .thenReturn(batchResponse);
 
         mockMvc.perform(post("/api/deals/batch")
@@ -214,7 +267,7 @@ class FxDealControllerTest {
                 .andExpect(jsonPath("$.successCount").value(1))
                 .andExpect(jsonPath("$.failureCount").value(1));
 
-        verify(fxDealService, times(1)).importDealsInBatch(any(FxDealBatchRequest.class));
+        verify(fxDealService, times(1)).importDealsInBatch(any(FxDealBatchRequest.class), eq(BatchResponseMode.FULL));
     }
 
     @Test
@@ -229,7 +282,7 @@ class FxDealControllerTest {
         batchResponse.setSuccessCount(0);
         batchResponse.setFailureCount(1);
 
-        when(fxDealService.importDealsInBatch(any(FxDealBatchRequest.class)))
+        when(fxDealService.importDealsInBatch(any(FxDealBatchRequest.class), eq(BatchResponseMode.FULL)))
                 .thenReturn(batchResponse);
 
         mockMvc.perform(post("/api/deals/batch")
@@ -240,7 +293,7 @@ class FxDealControllerTest {
                 .andExpect(jsonPath("$.successCount").value(0))
                 .andExpect(jsonPath("$.failureCount").value(1));
 
-        verify(fxDealService, times(1)).importDealsInBatch(any(FxDealBatchRequest.class));
+        verify(fxDealService, times(1)).importDealsInBatch(any(FxDealBatchRequest.class), eq(BatchResponseMode.FULL));
     }
 
     @Test
@@ -252,40 +305,215 @@ class FxDealControllerTest {
                         .content(objectMapper.writeValueAsString(emptyRequest)))
                 .andExpect(status().isBadRequest());
 
-        verify(fxDealService, never()).importDealsInBatch(any(FxDealBatchRequest.class));
+        verify(fxDealService, never())
+                .importDealsInBatch(any(FxDealBatchRequest.class), any(BatchResponseMode.class));
+    }
+
+    @Test
+    void importBatch_WithSummaryMode_ShouldOmitDealLists() throws Exception {
+        List<FxDealRequest> deals = new ArrayList<>();
+        deals.add(new FxDealRequest("DEAL001", "USD", "MAD", LocalDateTime.now(), new BigDecimal("1000")));
+
+        FxDealBatchResponse batchResponse = new FxDealBatchResponse(BatchResponseMode.SUMMARY);
+        batchResponse.setTotalRequested(1);
+        batchResponse.setSuccessCount(1);
+
+        when(fxDealService.importDealsInBatch(any(FxDealBatchRequest.class), eq(BatchResponseMode.SUMMARY)))
+                .thenReturn(batchResponse);
+
+        mockMvc.perform(post("/api/deals/batch")
+                        .param("response", "summary")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new FxDealBatchRequest(deals))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.successCount").value(1))
+                .andExpect(jsonPath("$.successfulDeals").doesNotExist())
+                .andExpect(jsonPath("$.failedDeals").doesNotExist());
+    }
+
+    @Test
+    void importBatch_WithUnknownResponseMode_ShouldReturnBadRequest() throws Exception {
+        List<FxDealRequest> deals = new ArrayList<>();
+        deals.add(new FxDealRequest("DEAL001", "USD", "MAD", LocalDateTime.now(), new BigDecimal("1000")));
+
+        mockMvc.perform(post("/api/deals/batch")
+                        .param("response", "everything")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new FxDealBatchRequest(deals))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unsupported response mode: everything"));
+
+        verify(fxDealService, never())
+                .importDealsInBatch(any(FxDealBatchRequest.class), any(BatchResponseMode.class));
+    }
+
+    @Test
+    void importBinary_ShouldPassBodyAndModeToImporter() throws Exception {
+        FxDealBatchResponse batchResponse = new FxDealBatchResponse(BatchResponseMode.FAILURES);
+        batchResponse.setTotalRequested(2);
+        batchResponse.setSuccessCount(1);
+        batchResponse.setFailureCount(1);
+        batchResponse.getFailedDeals()
+                .add(new DealError("DEAL002", DealError.DUPLICATE, "Deal DEAL002 already exists", 2));
+
+        when(binaryDealImporter.importStream(any(), eq(BatchResponseMode.FAILURES))).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/api/deals/binary")
+                        .param("response", "failures")
+                        .contentType(BinaryDealCodec.MEDIA_TYPE)
+                        .content(new byte[]{'F', 'X', 'D', '1'}))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.failedDeals[0].reasonCode").value("DUPLICATE"))
+                .andExpect(jsonPath("$.successfulDeals").doesNotExist());
     }
 
     @Test
-    void getAllDeals_WithExistingDeals_ShouldReturnList() throws Exception {
+    void getDeals_ShouldReturnPageWithNextCursor() throws Exception {
         List<FxDeal> deals = new ArrayList<>();
-        FxDeal deal1 = new FxDeal("DEAL001", "USD", "MAD", LocalDateTime.now(), new BigDecimal("1000"));
-        FxDeal deal2 = new FxDeal("DEAL002", "MAD", "EUR", LocalDateTime.now(), new BigDecimal("2000"));
-        deals.add(deal1);
-        deals.add(deal2);
+        deals.add(new FxDeal("DEAL001", "USD", "MAD", LocalDateTime.now(), new BigDecimal("1000")));
+        deals.add(new FxDeal("DEAL002", "USD", "MAD", LocalDateTime.now(), new BigDecimal("2000")));
 
-        when(fxDealService.getAllDeals()).thenReturn(deals);
+        when(fxDealQueryService.findDeals(any(DealQuery.class))).thenReturn(new FxDealPage(deals, "abc"));
 
         mockMvc.perform(get("/api/deals")
-                        .contentType(MediaType.APPLICATION_JSON))
+                        .param("fromCurrency", "USD")
+                        .param("timestampFrom", "2025-01-01T00:00:00")
+                        .param("limit", "2"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2))
-                .andExpect(jsonPath("$[0].dealId").value("DEAL001"))
-                .andExpect(jsonPath("$[1].dealId").value("DEAL002"));
+                .andExpect(jsonPath("$.deals.length()").value(2))
+                .andExpect(jsonPath("$.deals[0].dealId").value("DEAL001"))
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("abc"));
+
+        verify(fxDealQueryService).findDeals(argThat(query -> "USD".equals(query.getFromCurrency())
+                && Integer.valueOf(2).equals(query.getLimit())
+                && LocalDateTime.of(2025, 1, 1, 0, 0).equals(query.getTimestampFrom())));
+    }
+
+    @Test
+    void getDeals_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        when(fxDealQueryService.findDeals(any(DealQuery.class))).thenThrow(new InvalidQueryException("Invalid cursor"));
 
-        verify(fxDealService, times(1)).getAllDeals();
+        mockMvc.perform(get("/api/deals").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor"));
     }
 
     @Test
-    void getAllDeals_WithNoDeals_ShouldReturnEmptyList() throws Exception {
-        when(fxDealService.getAllDeals()).thenReturn(new ArrayList<>());
+    void importStream_ShouldStreamNdjsonResults() throws Exception {
+        when(importProperties.getStreamTimeout()).thenReturn(Duration.ofHours(1));
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"rowNumber\":1,\"dealId\":\"DEAL001\",\"status\":\"IMPORTED\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(ndjsonDealImporter).importStream(any(), any());
+
+        MvcResult result = mockMvc.perform(post("/api/deals/stream")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(3_600_000L, result.getRequest().getAsyncContext().getTimeout());
 
-        mockMvc.perform(get("/api/deals")
-                        .contentType(MediaType.APPLICATION_JSON))
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("\"status\":\"IMPORTED\"")));
+
+        verify(ndjsonDealImporter, times(1)).importStream(any(), any());
+    }
+
+    @Test
+    void exportDeals_AsCsv_ShouldStreamAttachment() throws Exception {
+        when(queryProperties.getExportTimeout()).thenReturn(Duration.ofHours(1));
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("dealId,fromCurrency\nDEAL001,USD\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(dealExporter).export(any(DealQuery.class), eq(ExportFormat.CSV), any());
+
+        MvcResult result = mockMvc.perform(get("/api/deals/export").param("format", "csv").param("fromCurrency", "USD"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(0));
+                .andExpect(header().string("Content-Disposition", "attachment; filename=fx-deals.csv"))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("DEAL001,USD")));
+    }
+
+    @Test
+    void exportDeals_WithUnknownFormat_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/deals/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verify(dealExporter, never()).export(any(), any(), any());
+    }
+
+    @Test
+    void bulkLoad_ShouldReturnSummaryWithFailures() throws Exception {
+        BulkLoadResponse response = new BulkLoadResponse();
+        response.setTotalRequested(2);
+        response.setSuccessCount(1);
+        response.setFailureCount(1);
+        response.getFailedDeals().add(new DealError("DEAL002", "Deal DEAL002 already exists", 2));
+        when(bulkDealLoader.load(any())).thenReturn(response);
+
+        mockMvc.perform(post("/api/deals/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.successCount").value(1))
+                .andExpect(jsonPath("$.failedDeals[0].rowNumber").value(2));
+    }
+
+    @Test
+    void submitBatchJob_ShouldReturnAcceptedWithJobLocation() throws Exception {
+        ImportJobResponse job = new ImportJobResponse();
+        job.setJobId("job-1");
+        job.setStatus(JobStatus.QUEUED);
+        job.setTotalRequested(1);
+        when(importJobService.submit(any(FxDealBatchRequest.class))).thenReturn(job);
+
+        mockMvc.perform(post("/api/deals/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new FxDealBatchRequest(List.of(validRequest)))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/deals/jobs/job-1"))
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+
+        verify(fxDealService, never())
+                .importDealsInBatch(any(FxDealBatchRequest.class), any(BatchResponseMode.class));
+    }
+
+    @Test
+    void getBatchJob_WithUnknownId_ShouldReturnNotFound() throws Exception {
+        when(importJobService.getJob("missing")).thenThrow(new JobNotFoundException("Job missing not found"));
+
+        mockMvc.perform(get("/api/deals/jobs/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Job Not Found"));
+    }
+
+    @Test
+    void getDeal_WithKnownId_ShouldReturnDeal() throws Exception {
+        FxDeal deal = new FxDeal("DEAL001", "USD", "MAD", LocalDateTime.of(2025, 1, 1, 10, 0), new BigDecimal("1000.50"));
+        when(fxDealQueryService.findDeal("DEAL001")).thenReturn(deal);
+
+        mockMvc.perform(get("/api/deals/DEAL001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dealId").value("DEAL001"))
+                .andExpect(jsonPath("$.fromCurrency").value("USD"))
+                .andExpect(jsonPath("$.dealAmount").value(1000.50));
+    }
+
+    @Test
+    void getDeal_WithUnknownId_ShouldReturnNotFound() throws Exception {
+        when(fxDealQueryService.findDeal("missing")).thenThrow(new DealNotFoundException("Deal missing not found"));
 
-        verify(fxDealService, times(1)).getAllDeals();
+        mockMvc.perform(get("/api/deals/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Deal Not Found"));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package bloomberg.fxdealswarehouse.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FxDealJsonCodecTest {
+    private final ObjectMapper beanMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper codecMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(FxDealJsonCodec.module())
+            .build();
+
+    @Test
+    void readRequest_ShouldMatchBeanBinding() throws Exception {
+        String json = """
+                {"dealId":"DEAL001","fromCurrency":"USD","toCurrency":"eur","unknown":{"nested":[1,2]},
+                 "dealTimestamp":"2025-11-26T10:30:15.25","dealAmount":1000.50}
+                """;
+
+        FxDealRequest expected = beanMapper.readValue(json, FxDealRequest.class);
+        FxDealRequest actual = codecMapper.readValue(json, FxDealRequest.class);
+
+        assertEquals(expected.getDealId(), actual.getDealId());
+        assertEquals("USD", actual.getFromCurrency());
+        assertEquals("eur", actual.getToCurrency());
+        assertEquals(LocalDateTime.of(2025, 11, 26, 10, 30, 15, 250_000_000), actual.getDealTimestamp());
+        assertEquals(expected.getDealTimestamp(), actual.getDealTimestamp());
+        assertEquals(new BigDecimal("1000.50"), actual.getDealAmount());
+    }
+
+    @Test
+    void readRequest_OffTheFastPath_ShouldFallBackToStandardBinding() throws Exception {
+        String json = """
+                {"dealId":42,"fromCurrency":null,"dealTimestamp":"2025-11-26T10:30","dealAmount":"12.5"}
+                """;
+
+        FxDealRequest request = codecMapper.readValue(json, FxDealRequest.class);
+
+        assertEquals("42", request.getDealId());
+        assertNull(request.getFromCurrency());
+        assertEquals(LocalDateTime.of(2025, 11, 26, 10, 30), request.getDealTimestamp());
+        assertEquals(new BigDecimal("12.5"), request.getDealAmount());
+    }
+
+    @Test
+    void readRequest_WithBadTimestamp_ShouldFailLikeBeanBinding() {
+        String json = "{\"dealId\":\"DEAL001\",\"dealTimestamp\":\"2025-13-26T10:30:00\"}";
+
+        assertThrows(InvalidFormatException.class, () -> beanMapper.readValue(json, FxDealRequest.class));
+        assertThrows(InvalidFormatException.class, () -> codecMapper.readValue(json, FxDealRequest.class));
+    }
+
+    @Test
+    void writeResponse_ShouldMatchBeanSerialization() throws Exception {
+        FxDealBatchResponse batch = new FxDealBatchResponse();
+        batch.getSuccessfulDeals().add(new FxDealResponse("DEAL001", "USD", "EUR",
+                LocalDateTime.of(2025, 11, 26, 10, 30), new BigDecimal("1000.50"),
+                LocalDateTime.of(2025, 11, 26, 10, 30, 1, 120_000), "Deal imported successfully"));
+        batch.getSuccessfulDeals().add(new FxDealResponse("DEAL002", "MAD", "USD",
+                LocalDateTime.of(2025, 11, 26, 11, 0, 0, 100_000_000), null, null, null));
+
+        assertEquals(beanMapper.writeValueAsString(batch), codecMapper.writeValueAsString(batch));
+    }
+
+    @Test
+    void parseTimestamp_ShouldRejectOtherShapes() {
+        for (String text : List.of("2025-11-26T10:30", "2025-11-26 10:30:00", "2025-11-26T10:30:00.",
+                "2025-11-26T10:30:00Z", "2025-02-30T10:30:00")) {
+            assertNull(FxDealJsonCodec.parseTimestamp(text.toCharArray(), 0, text.length()), text);
+        }
+        String text = "x2025-11-26T10:30:00.123456789x";
+        assertEquals(LocalDateTime.of(2025, 11, 26, 10, 30, 0, 123_456_789),
+                FxDealJsonCodec.parseTimestamp(text.toCharArray(), 1, text.length() - 2));
+    }
+}
@@ -0,0 +1,42 @@
+package bloomberg.fxdealswarehouse.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FxDealTest {
+
+    @Test
+    void currencyCodes_ShouldRoundTripAndShareDecodedStrings() {
+        short packed = CurrencyCodes.pack("MAD");
+
+        assertEquals("MAD", CurrencyCodes.unpack(packed));
+        assertSame(CurrencyCodes.unpack(packed), CurrencyCodes.unpack(CurrencyCodes.pack(new String("MAD"))));
+        assertEquals("ZZZ", CurrencyCodes.unpack(CurrencyCodes.pack("ZZZ")));
+        assertNull(CurrencyCodes.unpack(CurrencyCodes.pack(null)));
+        assertThrows(IllegalArgumentException.class, () -> CurrencyCodes.pack("usd"));
+    }
+
+    @Test
+    void dealAmount_ShouldKeepValueAndScaleIncludingVeryLargeAmounts() {
+        FxDeal deal = new FxDeal("DEAL001", "USD", "EUR", LocalDateTime.now(), new BigDecimal("1000.50"));
+        BigDecimal large = new BigDecimal("123456789012345678901234567890.12");
+
+        assertEquals(new BigDecimal("1000.50"), deal.getDealAmount());
+        assertSame(deal.getDealAmount(), deal.getDealAmount());
+        assertEquals("USD", deal.getFromCurrency());
+        assertEquals("EUR", deal.getToCurrency());
+
+        deal.setDealAmount(large);
+        assertEquals(large, deal.getDealAmount());
+
+        deal.setDealAmount(new BigDecimal("7.25"));
+        assertEquals(new BigDecimal("7.25"), deal.getDealAmount());
+
+        deal.setDealAmount(null);
+        assertNull(deal.getDealAmount());
+    }
+}
@@ -1,14 +1,21 @@
 package bloomberg.fxdealswarehouse.repository;
 
 
+import bloomberg.fxdealswarehouse.dto.DealError;
+import bloomberg.fxdealswarehouse.dto.DealQuery;
+import bloomberg.fxdealswarehouse.entity.CurrencyCodes;
 import bloomberg.fxdealswarehouse.entity.FxDeal;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -38,6 +45,23 @@ class FxDealRepositoryTest {
         assertTrue(exists);
     }
 
+    @Test
+    void saveAll_WithNewDeals_ShouldPersistWithoutMerging() {
+        FxDeal first = new FxDeal("DEAL010", "USD", "MAD", LocalDateTime.now(), new BigDecimal("10.00"));
+        FxDeal second = new FxDeal("DEAL011", "EUR", "GBP", LocalDateTime.now(), new BigDecimal("20.00"));
+        assertTrue(first.isNew());
+
+        List<FxDeal> saved = fxDealRepository.saveAll(List.of(first, second));
+        entityManager.flush();
+        entityManager.clear();
+
+        // merge would have returned managed copies instead of the instances passed in
+        assertSame(first, saved.get(0));
+        assertSame(second, saved.get(1));
+        assertFalse(first.isNew());
+        assertFalse(fxDealRepository.findById("DEAL011").orElseThrow().isNew());
+    }
+
     @Test
     void existsByDealId_WhenDealDoesNotExist_ShouldReturnFalse() {
         boolean exists = fxDealRepository.existsByDealId("NONEXISTENT");
@@ -77,4 +101,129 @@ class FxDealRepositoryTest {
 
         assertEquals(2, deals.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findExistingDealIds_ShouldReturnOnlyPersistedIds() {
+        entityManager.persist(new FxDeal("DEAL005", "USD", "MAD", LocalDateTime.now(), new BigDecimal("1000")));
+        entityManager.persist(new FxDeal("DEAL006", "EUR", "JPY", LocalDateTime.now(), new BigDecimal("2000")));
+        entityManager.flush();
+
+        List<String> existing = fxDealRepository.findExistingDealIds(List.of("DEAL005", "DEAL006", "DEAL007"));
+
+        assertEquals(2, existing.size());
+        assertTrue(existing.containsAll(List.of("DEAL005", "DEAL006")));
+    }
+
+    @Test
+    void insertAllIfAbsent_ShouldPersistNewDealsAndSkipExistingOnes() {
+        entityManager.persist(new FxDeal("DEAL008", "USD", "MAD", LocalDateTime.now(), new BigDecimal("1")));
+        entityManager.flush();
+        FxDeal duplicate = new FxDeal("DEAL008", "EUR", "JPY", LocalDateTime.now(), new BigDecimal("1000.25"));
+        FxDeal fresh = new FxDeal("DEAL009", "MAD", "JPY", LocalDateTime.now(), new BigDecimal("2000.75"));
+        duplicate.setCreationDate();
+        fresh.setCreationDate();
+
+        Set<String> inserted = fxDealRepository.insertAllIfAbsent(List.of(duplicate, fresh));
+
+        assertEquals(Set.of("DEAL009"), inserted);
+        assertTrue(fxDealRepository.existsByDealId("DEAL009"));
+        assertEquals(0, new BigDecimal("2000.75").compareTo(
+                fxDealRepository.findById("DEAL009").orElseThrow().getDealAmount()));
+    }
+
+    @Test
+    void insertIfAbsent_WhenDealAlreadyExists_ShouldReturnFalse() {
+        FxDeal deal = new FxDeal("DEAL010", "USD", "MAD", LocalDateTime.now(), new BigDecimal("1000"));
+        deal.setCreationDate();
+
+        assertTrue(fxDealRepository.insertIfAbsent(deal));
+        assertFalse(fxDealRepository.insertIfAbsent(deal));
+    }
+
+    @Test
+    void findPage_ShouldFilterAndSeekPastCursorInTimestampOrder() {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 10, 0);
+        entityManager.persist(new FxDeal("DEAL011", "USD", "MAD", base, new BigDecimal("100")));
+        entityManager.persist(new FxDeal("DEAL012", "USD", "MAD", base, new BigDecimal("200")));
+        entityManager.persist(new FxDeal("DEAL013", "USD", "MAD", base.plusHours(1), new BigDecimal("300")));
+        entityManager.persist(new FxDeal("DEAL014", "EUR", "MAD", base.plusHours(1), new BigDecimal("400")));
+        entityManager.persist(new FxDeal("DEAL015", "USD", "MAD", base.plusHours(2), new BigDecimal("5000")));
+        entityManager.flush();
+        DealQuery query = new DealQuery();
+        query.setFromCurrency("USD");
+        query.setMaxAmount(new BigDecimal("1000"));
+
+        List<FxDeal> first = fxDealRepository.findPage(query, null, null, 2);
+        List<FxDeal> second = fxDealRepository.findPage(query, base, "DEAL012", 2);
+
+        assertEquals(List.of("DEAL011", "DEAL012"), first.stream().map(FxDeal::getDealId).toList());
+        assertEquals(List.of("DEAL013"), second.stream().map(FxDeal::getDealId).toList());
+    }
+
+    @Test
+    void forEachDeal_ShouldStreamFilteredDeals() {
+        entityManager.persist(new FxDeal("DEAL016", "USD", "MAD", LocalDateTime.now(), new BigDecimal("100")));
+        entityManager.persist(new FxDeal("DEAL017", "EUR", "MAD", LocalDateTime.now(), new BigDecimal("200")));
+        entityManager.flush();
+        DealQuery query = new DealQuery();
+        query.setToCurrency("MAD");
+        query.setMinAmount(new BigDecimal("150"));
+        List<FxDeal> streamed = new ArrayList<>();
+
+        fxDealRepository.forEachDeal(query, streamed::add);
+
+        assertEquals(1, streamed.size());
+        assertEquals("DEAL017", streamed.get(0).getDealId());
+        assertNotNull(streamed.get(0).getCreatedAt());
+    }
+
+    @Test
+    void findByPairInRange_ShouldReturnPairDealsInHalfOpenRangeOrderedByTimestamp() {
+        LocalDateTime day = LocalDateTime.of(2025, 3, 1, 0, 0);
+        entityManager.persist(new FxDeal("DEAL018", "USD", "EUR", day.plusHours(5), new BigDecimal("100")));
+        entityManager.persist(new FxDeal("DEAL019", "USD", "EUR", day.plusHours(1), new BigDecimal("200")));
+        entityManager.persist(new FxDeal("DEAL020", "USD", "EUR", day.plusDays(1), new BigDecimal("300")));
+        entityManager.persist(new FxDeal("DEAL021", "EUR", "USD", day.plusHours(2), new BigDecimal("400")));
+        entityManager.flush();
+
+        short usd = CurrencyCodes.pack("USD");
+        short eur = CurrencyCodes.pack("EUR");
+
+        List<FxDeal> deals = fxDealRepository.findByPairInRange(usd, eur, day, day.plusDays(1), PageRequest.of(0, 10));
+
+        assertEquals(List.of("DEAL019", "DEAL018"), deals.stream().map(FxDeal::getDealId).toList());
+        assertEquals(2, fxDealRepository.countByPairInRange(usd, eur, day, day.plusDays(1)));
+        assertEquals(3, fxDealRepository.findInRange(day, day.plusDays(1), PageRequest.of(0, 10)).size());
+    }
+
+    @Test
+    void migrations_ShouldCreateQueryIndexes() {
+        Number indexes = (Number) entityManager.getEntityManager().createNativeQuery(
+                "select count(distinct index_name) from information_schema.indexes " +
+                        "where lower(index_name) in ('idx_fx_deals_pair_timestamp', 'idx_fx_deals_timestamp')")
+                .getSingleResult();
+
+        assertEquals(2, indexes.intValue());
+    }
+
+    @Test
+    void bulkInsertIfAbsent_ShouldInsertStagedDealsAndReturnDuplicates() throws Exception {
+        entityManager.persist(new FxDeal("DEAL022", "USD", "MAD", LocalDateTime.now(), new BigDecimal("1")));
+        entityManager.flush();
+        FxDeal existing = new FxDeal("DEAL022", "EUR", "JPY", LocalDateTime.now(), new BigDecimal("10"));
+        FxDeal fresh = new FxDeal("DEAL023", "EUR", "JPY", LocalDateTime.now(), new BigDecimal("20"));
+        existing.setCreationDate();
+        fresh.setCreationDate();
+
+        List<DealError> duplicates = fxDealRepository.bulkInsertIfAbsent(writer -> {
+            writer.write(1, existing);
+            writer.write(2, fresh);
+            writer.write(3, fresh);
+        });
+
+        assertEquals(List.of(1, 3), duplicates.stream().map(DealError::getRowNumber).toList());
+        assertEquals("Deal DEAL022 already exists", duplicates.get(0).getErrorMessage());
+        assertEquals(DealError.DUPLICATE, duplicates.get(0).getReasonCode());
+        assertTrue(fxDealRepository.existsByDealId("DEAL023"));
+    }
+}
@@ -0,0 +1,95 @@
+package bloomberg.fxdealswarehouse.repository;
+
+import bloomberg.fxdealswarehouse.entity.ImportJob;
+import bloomberg.fxdealswarehouse.entity.JobStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ImportJobRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Test
+    void updateProgress_ShouldStoreCounts() {
+        entityManager.persist(new ImportJob("job-1", 10));
+        entityManager.flush();
+
+        importJobRepository.updateProgress("job-1", 5, 4, 1);
+        entityManager.clear();
+
+        ImportJob job = importJobRepository.findById("job-1").orElseThrow();
+        assertEquals(5, job.getProcessedCount());
+        assertEquals(4, job.getSuccessCount());
+        assertEquals(1, job.getFailureCount());
+    }
+
+    @Test
+    void markStaleJobs_ShouldOnlyTouchActiveJobsWithAStaleHeartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        ImportJob stale = new ImportJob("job-2", 10);
+        stale.setStatus(JobStatus.RUNNING);
+        stale.setHeartbeatAt(now.minusMinutes(10));
+        ImportJob live = new ImportJob("job-5", 10);
+        live.setStatus(JobStatus.RUNNING);
+        live.setHeartbeatAt(now.minusSeconds(10));
+        ImportJob completed = new ImportJob("job-3", 10);
+        completed.setStatus(JobStatus.COMPLETED);
+        completed.setHeartbeatAt(now.minusMinutes(10));
+        entityManager.persist(stale);
+        entityManager.persist(live);
+        entityManager.persist(completed);
+        entityManager.flush();
+
+        int updated = importJobRepository.markStaleJobs(List.of(JobStatus.QUEUED, JobStatus.RUNNING),
+                now.minusMinutes(5), JobStatus.INTERRUPTED, now);
+        entityManager.clear();
+
+        assertEquals(1, updated);
+        assertEquals(JobStatus.INTERRUPTED, importJobRepository.findById("job-2").orElseThrow().getStatus());
+        assertEquals(JobStatus.RUNNING, importJobRepository.findById("job-5").orElseThrow().getStatus());
+        assertEquals(JobStatus.COMPLETED, importJobRepository.findById("job-3").orElseThrow().getStatus());
+    }
+
+    @Test
+    void touch_ShouldRefreshTheHeartbeatOfTheGivenJobs() {
+        ImportJob job = new ImportJob("job-6", 10);
+        job.setHeartbeatAt(LocalDateTime.of(2025, 1, 1, 0, 0));
+        entityManager.persist(job);
+        entityManager.flush();
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 0, 1);
+
+        assertEquals(1, importJobRepository.touch(List.of("job-6"), now));
+        entityManager.clear();
+
+        assertEquals(now, importJobRepository.findById("job-6").orElseThrow().getHeartbeatAt());
+    }
+
+    @Test
+    void markFinished_ShouldStoreTerminalStatusAndMessage() {
+        ImportJob running = new ImportJob("job-4", 10);
+        running.setStatus(JobStatus.RUNNING);
+        entityManager.persist(running);
+        entityManager.flush();
+
+        importJobRepository.markFinished("job-4", JobStatus.FAILED, "Could not store the job outcome",
+                LocalDateTime.now());
+        entityManager.clear();
+
+        ImportJob job = importJobRepository.findById("job-4").orElseThrow();
+        assertEquals(JobStatus.FAILED, job.getStatus());
+        assertEquals("Could not store the job outcome", job.getErrorMessage());
+        assertNotNull(job.getFinishedAt());
+    }
+}
@@ -0,0 +1,161 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.dto.BatchResponseMode;
+import bloomberg.fxdealswarehouse.dto.DealError;
+import bloomberg.fxdealswarehouse.dto.FxDealBatchResponse;
+import bloomberg.fxdealswarehouse.dto.FxDealRequest;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import bloomberg.fxdealswarehouse.exception.InvalidDealException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BinaryDealImporterTest {
+    @Mock
+    private FxDealService fxDealService;
+    private ImportProperties importProperties;
+    private BinaryDealImporter importer;
+    private final List<List<FxDealRequest>> chunks = new ArrayList<>();
+    private final DealValidator validator = new DealValidator();
+
+    @BeforeEach
+    void setUp() {
+        importProperties = new ImportProperties();
+        importer = new BinaryDealImporter(fxDealService, importProperties,
+                new ImportMetrics(new SimpleMeterRegistry()), new FailureLogSampler(importProperties));
+        lenient().when(fxDealService.importChunk(anyList(), anyInt())).thenAnswer(invocation -> {
+            List<FxDealRequest> chunk = invocation.getArgument(0);
+            chunks.add(new ArrayList<>(chunk));
+            int firstRow = invocation.getArgument(1);
+            DealChunkResult result = new DealChunkResult(firstRow, chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                FxDealRequest request = chunk.get(i);
+                // rows the validator rejects never become an FxDeal, as in FxDealService.importChunk
+                DealViolation violation = validator.validate(request);
+                if (violation != null) {
+                    result.failed(i, request.getDealId(), violation.name(), violation.getMessage());
+                } else if ("DEAL002".equals(request.getDealId())) {
+                    result.failed(i, request.getDealId(), DealChunkResult.DUPLICATE, "Deal DEAL002 already exists");
+                } else {
+                    result.imported(i, new FxDeal(request.getDealId(), request.getFromCurrency(),
+                            request.getToCurrency(), request.getDealTimestamp(), request.getDealAmount()));
+                }
+            }
+            return result;
+        });
+    }
+
+    @Test
+    void importStream_ShouldDecodeEveryFieldAndKeepRowNumbers() throws Exception {
+        FxDealRequest first = new FxDealRequest("DEAL001", "USD", "EUR",
+                LocalDateTime.of(2025, 11, 26, 10, 30, 0, 123_000_000), new BigDecimal("1000.50"));
+        FxDealRequest second = new FxDealRequest("DEAL002", "MAD", "USD",
+                LocalDateTime.of(2025, 11, 26, 11, 0), new BigDecimal("5000"));
+
+        FxDealBatchResponse response = importer.importStream(
+                new ByteArrayInputStream(encode(first, second)), BatchResponseMode.FAILURES);
+
+        assertEquals(2, response.getTotalRequested());
+        assertEquals(1, response.getSuccessCount());
+        assertEquals(1, response.getFailureCount());
+        assertNull(response.getSuccessfulDeals());
+        assertEquals(2, response.getFailedDeals().get(0).getRowNumber());
+        assertEquals(DealError.DUPLICATE, response.getFailedDeals().get(0).getReasonCode());
+
+        FxDealRequest decoded = chunks.get(0).get(0);
+        assertEquals("DEAL001", decoded.getDealId());
+        assertEquals("USD", decoded.getFromCurrency());
+        assertEquals("EUR", decoded.getToCurrency());
+        assertEquals(first.getDealTimestamp(), decoded.getDealTimestamp());
+        assertEquals(new BigDecimal("1000.50"), decoded.getDealAmount());
+    }
+
+    @Test
+    void importStream_ShouldCarryMissingFieldsToValidation() throws Exception {
+        FxDealRequest incomplete = new FxDealRequest(null, "usd", null, null, null);
+
+        FxDealBatchResponse response = importer.importStream(new ByteArrayInputStream(encode(incomplete)),
+                BatchResponseMode.SUMMARY);
+
+        assertEquals(1, response.getFailureCount());
+        FxDealRequest decoded = chunks.get(0).get(0);
+        assertNull(decoded.getDealId());
+        assertEquals("usd", decoded.getFromCurrency());
+        assertNull(decoded.getToCurrency());
+        assertNull(decoded.getDealTimestamp());
+        assertNull(decoded.getDealAmount());
+    }
+
+    @Test
+    void importStream_ShouldImportInBoundedChunks() throws Exception {
+        importProperties.setChunkSize(2);
+        FxDealRequest[] deals = new FxDealRequest[5];
+        for (int i = 0; i < deals.length; i++) {
+            deals[i] = new FxDealRequest("D" + (i + 1), "USD", "EUR", LocalDateTime.of(2025, 1, 1, 0, 0),
+                    BigDecimal.TEN);
+        }
+
+        FxDealBatchResponse response = importer.importStream(new ByteArrayInputStream(encode(deals)),
+                BatchResponseMode.SUMMARY);
+
+        assertEquals(5, response.getSuccessCount());
+        verify(fxDealService, times(1)).importChunk(anyList(), eq(1));
+        verify(fxDealService, times(1)).importChunk(anyList(), eq(3));
+        verify(fxDealService, times(1)).importChunk(anyList(), eq(5));
+    }
+
+    @Test
+    void importStream_WhenRecordIsTruncated_ShouldKeepEarlierDealsAndStop() throws Exception {
+        byte[] body = encode(
+                new FxDealRequest("DEAL001", "USD", "EUR", LocalDateTime.of(2025, 1, 1, 0, 0), BigDecimal.ONE),
+                new FxDealRequest("DEAL003", "USD", "EUR", LocalDateTime.of(2025, 1, 1, 0, 0), BigDecimal.ONE));
+
+        FxDealBatchResponse response = importer.importStream(
+                new ByteArrayInputStream(Arrays.copyOf(body, body.length - 5)), BatchResponseMode.FAILURES);
+
+        assertEquals(2, response.getTotalRequested());
+        assertEquals(1, response.getSuccessCount());
+        DealError error = response.getFailedDeals().get(0);
+        assertEquals(2, error.getRowNumber());
+        assertEquals(DealError.MALFORMED, error.getReasonCode());
+    }
+
+    @Test
+    void importStream_WithoutMagic_ShouldRejectStream() {
+        byte[] body = "{\"deals\":[]}".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(InvalidDealException.class,
+                () -> importer.importStream(new ByteArrayInputStream(body), BatchResponseMode.FULL));
+        verifyNoInteractions(fxDealService);
+    }
+
+    private byte[] encode(FxDealRequest... deals) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        BinaryDealCodec.writeHeader(out);
+        for (FxDealRequest deal : deals) {
+            BinaryDealCodec.write(out, deal);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
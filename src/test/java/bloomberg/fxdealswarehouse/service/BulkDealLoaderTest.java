@@ -0,0 +1,113 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.config.QueryProperties;
+import bloomberg.fxdealswarehouse.dto.BulkLoadResponse;
+import bloomberg.fxdealswarehouse.dto.DealError;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import bloomberg.fxdealswarehouse.repository.FxDealRepository;
+import bloomberg.fxdealswarehouse.repository.StagedDealSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkDealLoaderTest {
+    @Mock
+    private FxDealRepository fxDealRepository;
+    private DealIdBloomFilter dealIdFilter;
+    private ExecutorService importExecutor;
+    private BulkDealLoader loader;
+    private final List<Integer> stagedRows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ImportProperties importProperties = new ImportProperties();
+        importProperties.getBloomFilter().setExpectedInsertions(1_000);
+        dealIdFilter = new DealIdBloomFilter(importProperties);
+        importExecutor = Executors.newSingleThreadExecutor();
+        ImportMetrics metrics = new ImportMetrics(new SimpleMeterRegistry());
+        FxDealService fxDealService = new FxDealService(fxDealRepository, importProperties, dealIdFilter,
+                new DealCache(new QueryProperties(), new SimpleMeterRegistry()),
+                new DealWriteBuffer(fxDealRepository, importProperties, metrics),
+                new DealJournal(importProperties, new SimpleMeterRegistry()), new DealValidator(),
+                metrics, new FailureLogSampler(importProperties), importExecutor);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        loader = new BulkDealLoader(fxDealRepository, fxDealService, dealIdFilter, new DealValidator(),
+                new ImportMetrics(new SimpleMeterRegistry()), new NdjsonDealParser(objectMapper));
+        when(fxDealRepository.bulkInsertIfAbsent(any())).thenAnswer(invocation -> {
+            StagedDealSource source = invocation.getArgument(0);
+            List<DealError> duplicates = new ArrayList<>();
+            source.writeTo((rowNumber, deal) -> {
+                stagedRows.add(rowNumber);
+                if ("DEAL002".equals(deal.getDealId())) {
+                    duplicates.add(new DealError(deal.getDealId(), "Deal DEAL002 already exists", rowNumber));
+                }
+            });
+            return duplicates;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        importExecutor.shutdownNow();
+    }
+
+    @Test
+    void load_ShouldStageValidDealsAndReportFailuresInRowOrder() throws Exception {
+        String body = """
+                {"dealId":"DEAL001","fromCurrency":"USD","toCurrency":"EUR","dealTimestamp":"2025-01-01T10:00:00","dealAmount":100}
+                {"dealId":"DEAL002","fromCurrency":"USD","toCurrency":"MAD","dealTimestamp":"2025-01-01T10:00:00","dealAmount":200}
+                {"dealId":"DEAL003","fromCurrency":"USD","toCurrency":"USD","dealTimestamp":"2025-01-01T10:00:00","dealAmount":300}
+                {"dealId":"DEAL004","fromCurrency":"USD","toCurrency":"EUR","dealTimestamp":"not-a-date","dealAmount":400}
+                {"dealId":"DEAL005","fromCurrency":"GBP","toCurrency":"EUR","dealTimestamp":"2025-01-01T10:00:00","dealAmount":500}
+                """;
+
+        BulkLoadResponse response = loader.load(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of(1, 2, 5), stagedRows);
+        assertEquals(5, response.getTotalRequested());
+        assertEquals(2, response.getSuccessCount());
+        assertEquals(3, response.getFailureCount());
+        assertEquals(List.of(2, 3, 4), response.getFailedDeals().stream().map(DealError::getRowNumber).toList());
+        assertEquals("Deal DEAL002 already exists", response.getFailedDeals().get(0).getErrorMessage());
+        assertEquals("From and To currency cannot be same", response.getFailedDeals().get(1).getErrorMessage());
+        assertEquals("SAME_CURRENCY", response.getFailedDeals().get(1).getReasonCode());
+        assertEquals("Malformed deal", response.getFailedDeals().get(2).getErrorMessage());
+        assertEquals(DealError.MALFORMED, response.getFailedDeals().get(2).getReasonCode());
+        assertTrue(dealIdFilter.mightContain("DEAL005"));
+    }
+
+    @Test
+    void load_WithInvalidJson_ShouldStopAndKeepRowsReadBeforeTheSyntaxError() throws Exception {
+        String body = """
+                {"dealId":"DEAL001","fromCurrency":"USD","toCurrency":"EUR","dealTimestamp":"2025-01-01T10:00:00","dealAmount":100}
+                not json at all
+                {"dealId":"DEAL005","fromCurrency":"GBP","toCurrency":"EUR","dealTimestamp":"2025-01-01T10:00:00","dealAmount":500}
+                """;
+
+        BulkLoadResponse response = loader.load(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of(1), stagedRows);
+        assertEquals(2, response.getTotalRequested());
+        assertEquals(1, response.getSuccessCount());
+        assertTrue(response.getFailedDeals().get(0).getErrorMessage().startsWith("Malformed NDJSON, import stopped"));
+    }
+}
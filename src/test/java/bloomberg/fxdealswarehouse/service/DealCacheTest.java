@@ -0,0 +1,52 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.QueryProperties;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealCacheTest {
+    private QueryProperties queryProperties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        queryProperties = new QueryProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void get_AfterPut_ShouldNotCallLoader() {
+        DealCache cache = new DealCache(queryProperties, meterRegistry);
+        FxDeal deal = deal("DEAL001");
+        cache.put(deal);
+
+        assertSame(deal, cache.get("DEAL001", id -> fail("loader should not be called")));
+        assertEquals(1.0, meterRegistry.get("fx.deals.lookup.cache.hit.ratio").gauge().value());
+        assertEquals(1, meterRegistry.get("fx.deals.lookup").tag("source", "cache").timer().count());
+    }
+
+    @Test
+    void get_WhenDisabled_ShouldAlwaysCallLoader() {
+        queryProperties.getCache().setEnabled(false);
+        DealCache cache = new DealCache(queryProperties, meterRegistry);
+        cache.put(deal("DEAL001"));
+
+        FxDeal loaded = cache.get("DEAL001", id -> deal(id));
+
+        assertFalse(cache.isEnabled());
+        assertEquals("DEAL001", loaded.getDealId());
+        assertEquals(1, meterRegistry.get("fx.deals.lookup").tag("source", "database").timer().count());
+        assertNull(meterRegistry.find("cache.gets").meter());
+    }
+
+    private FxDeal deal(String dealId) {
+        return new FxDeal(dealId, "USD", "MAD", LocalDateTime.of(2025, 1, 1, 10, 0), new BigDecimal("1000"));
+    }
+}
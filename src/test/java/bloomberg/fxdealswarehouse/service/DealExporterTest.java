@@ -0,0 +1,72 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.dto.DealQuery;
+import bloomberg.fxdealswarehouse.dto.ExportFormat;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import bloomberg.fxdealswarehouse.repository.FxDealRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealExporterTest {
+    @Mock
+    private FxDealRepository fxDealRepository;
+    private ObjectMapper objectMapper;
+    private DealExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        exporter = new DealExporter(fxDealRepository, objectMapper);
+        doAnswer(invocation -> {
+            Consumer<FxDeal> action = invocation.getArgument(1);
+            LocalDateTime timestamp = LocalDateTime.of(2025, 1, 1, 10, 30);
+            action.accept(new FxDeal("DEAL001", "USD", "MAD", timestamp, new BigDecimal("1000.50")));
+            action.accept(new FxDeal("DEAL,\"002\"", "EUR", "JPY", timestamp, new BigDecimal("2E+3")));
+            return null;
+        }).when(fxDealRepository).forEachDeal(any(DealQuery.class), any());
+    }
+
+    @Test
+    void export_AsNdjson_ShouldWriteOneDealPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export(new DealQuery(), ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("DEAL001", first.get("dealId").asText());
+        assertEquals("2025-01-01T10:30:00", first.get("dealTimestamp").asText());
+        assertEquals("DEAL,\"002\"", objectMapper.readTree(lines[1]).get("dealId").asText());
+    }
+
+    @Test
+    void export_AsCsv_ShouldWriteHeaderAndEscapeDealIds() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export(new DealQuery(), ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("dealId,fromCurrency,toCurrency,dealTimestamp,dealAmount,createdAt", lines[0]);
+        assertEquals("DEAL001,USD,MAD,2025-01-01T10:30:00,1000.50,", lines[1]);
+        assertEquals("\"DEAL,\"\"002\"\"\",EUR,JPY,2025-01-01T10:30:00,2000,", lines[2]);
+    }
+}
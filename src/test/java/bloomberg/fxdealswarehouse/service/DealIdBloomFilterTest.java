@@ -0,0 +1,73 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.dto.DealIdFilterStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealIdBloomFilterTest {
+    private ImportProperties importProperties;
+
+    @BeforeEach
+    void setUp() {
+        importProperties = new ImportProperties();
+        importProperties.getBloomFilter().setExpectedInsertions(10_000);
+        importProperties.getBloomFilter().setFalsePositiveRate(0.01);
+    }
+
+    @Test
+    void mightContain_BeforeWarmUp_ShouldAnswerMaybe() {
+        DealIdBloomFilter filter = new DealIdBloomFilter(importProperties);
+
+        assertTrue(filter.mightContain("DEAL001"));
+        assertEquals(0, filter.stats().getDefiniteMisses());
+    }
+
+    @Test
+    void mightContain_ShouldNeverMissAnInsertedId() {
+        DealIdBloomFilter filter = new DealIdBloomFilter(importProperties);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("DEAL" + i);
+        }
+        filter.markReady();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("DEAL" + i));
+        }
+    }
+
+    @Test
+    void mightContain_ShouldStayNearConfiguredFalsePositiveRate() {
+        DealIdBloomFilter filter = new DealIdBloomFilter(importProperties);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("DEAL" + i);
+        }
+        filter.markReady();
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("OTHER" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        DealIdFilterStats stats = filter.stats();
+        assertTrue(stats.getInsertions() > 9_800 && stats.getInsertions() <= 10_000);
+        assertEquals(10_000, stats.getProbableHits() + stats.getDefiniteMisses());
+        assertEquals(falsePositives, stats.getProbableHits());
+        assertTrue(stats.getEstimatedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    void mightContain_WhenDisabled_ShouldAlwaysAnswerMaybe() {
+        importProperties.getBloomFilter().setEnabled(false);
+        DealIdBloomFilter filter = new DealIdBloomFilter(importProperties);
+        filter.markReady();
+
+        assertTrue(filter.mightContain("DEAL001"));
+        assertEquals(0, filter.stats().getBitCount());
+    }
+}
@@ -0,0 +1,109 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.config.QueryProperties;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import bloomberg.fxdealswarehouse.repository.FxDealRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealJournalReplayerTest {
+    @TempDir
+    Path journalDir;
+    @Mock
+    private FxDealRepository fxDealRepository;
+    private DealJournal journal;
+    private DealJournalReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        ImportProperties importProperties = new ImportProperties();
+        importProperties.getJournal().setEnabled(true);
+        importProperties.getJournal().setDirectory(journalDir.toString());
+        importProperties.getBloomFilter().setExpectedInsertions(1_000);
+        journal = new DealJournal(importProperties, new SimpleMeterRegistry());
+        replayer = new DealJournalReplayer(journal, fxDealRepository, new DealIdBloomFilter(importProperties),
+                new DealCache(new QueryProperties(), new SimpleMeterRegistry()), importProperties);
+        journal.append(deal("DEAL001"));
+        journal.append(deal("DEAL002"));
+        journal.markDatabaseDown();
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    void replay_WhenDatabaseIsBack_ShouldWriteJournaledDealsAndEmptyTheJournal() throws Exception {
+        when(fxDealRepository.insertAllIfAbsent(anyList())).thenReturn(Set.of("DEAL001"));
+
+        replayer.replay();
+
+        verify(fxDealRepository).insertAllIfAbsent(argThat(deals -> deals.size() == 2));
+        assertEquals(0, journal.getPendingCount());
+        assertTrue(journal.sealedSegments().isEmpty());
+        assertFalse(journal.isDatabaseDown());
+    }
+
+    @Test
+    void replay_WhenDatabaseIsStillDown_ShouldKeepSegmentForNextRun() throws Exception {
+        when(fxDealRepository.insertAllIfAbsent(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        replayer.replay();
+
+        assertEquals(2, journal.getPendingCount());
+        assertEquals(1, journal.sealedSegments().size());
+        assertTrue(journal.isDatabaseDown());
+    }
+
+    @Test
+    void replay_WhenTheDatabaseRefusesADeal_ShouldDeadLetterItAndResumeDirectWrites() throws Exception {
+        when(fxDealRepository.insertAllIfAbsent(anyList()))
+                .thenThrow(new DataIntegrityViolationException("value too long for type character varying(3)"));
+        when(fxDealRepository.insertIfAbsent(argThat(deal -> deal != null && "DEAL001".equals(deal.getDealId()))))
+                .thenReturn(true);
+        when(fxDealRepository.insertIfAbsent(argThat(deal -> deal != null && "DEAL002".equals(deal.getDealId()))))
+                .thenThrow(new DataIntegrityViolationException("value too long for type character varying(3)"));
+
+        replayer.replay();
+
+        assertEquals(0, journal.getPendingCount());
+        assertTrue(journal.sealedSegments().isEmpty());
+        assertFalse(journal.isDatabaseDown());
+        List<Path> deadLetters;
+        try (Stream<Path> files = Files.list(journalDir)) {
+            deadLetters = files.filter(path -> path.getFileName().toString().endsWith(".dead")).toList();
+        }
+        assertEquals(1, deadLetters.size());
+        assertEquals(List.of("DEAL002"), journal.read(deadLetters.get(0)).stream().map(FxDeal::getDealId).toList());
+    }
+
+    private FxDeal deal(String dealId) {
+        FxDeal deal = new FxDeal(dealId, "USD", "MAD", LocalDateTime.of(2025, 1, 1, 10, 0), new BigDecimal("1000"));
+        deal.setCreationDate();
+        return deal;
+    }
+}
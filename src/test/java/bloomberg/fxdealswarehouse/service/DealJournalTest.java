@@ -0,0 +1,87 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealJournalTest {
+    @TempDir
+    Path journalDir;
+    private ImportProperties importProperties;
+
+    @BeforeEach
+    void setUp() {
+        importProperties = new ImportProperties();
+        importProperties.getJournal().setEnabled(true);
+        importProperties.getJournal().setDirectory(journalDir.toString());
+    }
+
+    @Test
+    void append_ThenSeal_ShouldReadBackEveryDealExactly() throws Exception {
+        DealJournal journal = new DealJournal(importProperties, new SimpleMeterRegistry());
+        FxDeal deal = new FxDeal("DEAL001", "USD", "MAD", LocalDateTime.of(2025, 1, 1, 10, 0, 0, 123_456_000),
+                new BigDecimal("1000.50"));
+        deal.setCreationDate();
+        FxDeal large = new FxDeal("DEAL002", "EUR", "JPY", LocalDateTime.of(2025, 1, 2, 0, 0),
+                new BigDecimal("123456789012345678901234.99"));
+        journal.append(deal);
+        journal.append(large);
+
+        journal.seal();
+        List<Path> segments = journal.sealedSegments();
+        List<FxDeal> read = journal.read(segments.get(0));
+
+        assertEquals(1, segments.size());
+        assertEquals(2, journal.getPendingCount());
+        assertEquals("DEAL001", read.get(0).getDealId());
+        assertEquals("MAD", read.get(0).getToCurrency());
+        assertEquals(deal.getDealTimestamp(), read.get(0).getDealTimestamp());
+        assertEquals(deal.getCreatedAt(), read.get(0).getCreatedAt());
+        assertEquals(new BigDecimal("1000.50"), read.get(0).getDealAmount());
+        assertEquals(new BigDecimal("123456789012345678901234.99"), read.get(1).getDealAmount());
+        assertNull(read.get(1).getCreatedAt());
+        journal.close();
+    }
+
+    @Test
+    void constructor_ShouldRecoverDealsLeftByPreviousRun() throws Exception {
+        importProperties.getJournal().setSegmentSize(DataSize.ofKilobytes(64));
+        DealJournal journal = new DealJournal(importProperties, new SimpleMeterRegistry());
+        for (int i = 0; i < 2_000; i++) {
+            journal.append(new FxDeal("DEAL" + i, "USD", "EUR", LocalDateTime.of(2025, 1, 1, 10, 0), BigDecimal.ONE));
+        }
+        journal.close();
+
+        DealJournal reopened = new DealJournal(importProperties, new SimpleMeterRegistry());
+        List<FxDeal> recovered = new ArrayList<>();
+        for (Path segment : reopened.sealedSegments()) {
+            recovered.addAll(reopened.read(segment));
+        }
+
+        assertTrue(reopened.sealedSegments().size() > 1);
+        assertEquals(2_000, reopened.getPendingCount());
+        assertEquals("DEAL0", recovered.get(0).getDealId());
+        assertEquals("DEAL1999", recovered.get(1_999).getDealId());
+        reopened.close();
+    }
+
+    @Test
+    void isEnabled_ByDefault_ShouldBeFalse() {
+        DealJournal journal = new DealJournal(new ImportProperties(), new SimpleMeterRegistry());
+
+        assertFalse(journal.isEnabled());
+        assertFalse(journal.isDatabaseDown());
+    }
+}
@@ -0,0 +1,54 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.dto.FxDealRequest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealValidatorTest {
+    private final DealValidator validator = new DealValidator();
+
+    @Test
+    void isIsoCurrency_ShouldAcceptExactlyTheJdkCurrencyCodes() {
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            assertTrue(validator.isIsoCurrency(currency.getCurrencyCode()), currency.getCurrencyCode());
+        }
+        assertFalse(validator.isIsoCurrency("AAA"));
+        assertFalse(validator.isIsoCurrency("usd"));
+        assertFalse(validator.isIsoCurrency("US"));
+        assertFalse(validator.isIsoCurrency("USDX"));
+        assertFalse(validator.isIsoCurrency("U$D"));
+        assertFalse(validator.isIsoCurrency(null));
+    }
+
+    @Test
+    void validate_ShouldReturnFirstViolationWithoutThrowing() {
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal amount = new BigDecimal("100");
+
+        assertNull(validator.validate(new FxDealRequest("DEAL001", "USD", "EUR", now, amount)));
+        assertEquals(DealViolation.MISSING_DEAL_ID, validator.validate(new FxDealRequest(" ", "USD", "EUR", now, amount)));
+        assertEquals(DealViolation.MISSING_TIMESTAMP, validator.validate(new FxDealRequest("DEAL001", "USD", "EUR", null, amount)));
+        assertEquals(DealViolation.MISSING_AMOUNT, validator.validate(new FxDealRequest("DEAL001", "USD", "EUR", now, null)));
+        assertEquals(DealViolation.INVALID_FROM_CURRENCY, validator.validate(new FxDealRequest("DEAL001", "XYZ", "EUR", now, amount)));
+        assertEquals(DealViolation.INVALID_TO_CURRENCY, validator.validate(new FxDealRequest("DEAL001", "USD", null, now, amount)));
+        assertEquals(DealViolation.SAME_CURRENCY, validator.validate(new FxDealRequest("DEAL001", "USD", "USD", now, amount)));
+        assertEquals(DealViolation.AMOUNT_NOT_POSITIVE, validator.validate(new FxDealRequest("DEAL001", "USD", "EUR", now, new BigDecimal("-5"))));
+    }
+
+    @Test
+    void validate_ShouldRejectValuesTheDealsTableCannotStore() {
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal amount = new BigDecimal("100");
+
+        assertNull(validator.validate(new FxDealRequest("D".repeat(255), "USD", "EUR", now, amount)));
+        assertEquals(DealViolation.DEAL_ID_TOO_LONG, validator.validate(new FxDealRequest("D".repeat(256), "USD", "EUR", now, amount)));
+        assertNull(validator.validate(new FxDealRequest("DEAL001", "USD", "EUR", now, new BigDecimal("9".repeat(36) + ".994"))));
+        assertEquals(DealViolation.AMOUNT_TOO_LARGE, validator.validate(new FxDealRequest("DEAL001", "USD", "EUR", now, new BigDecimal("9".repeat(36) + ".995"))));
+        assertEquals(DealViolation.AMOUNT_TOO_LARGE, validator.validate(new FxDealRequest("DEAL001", "USD", "EUR", now, new BigDecimal("1E40"))));
+    }
+}
@@ -0,0 +1,184 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import bloomberg.fxdealswarehouse.repository.FxDealRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DealWriteBufferTest {
+    @Mock
+    private FxDealRepository fxDealRepository;
+    private ImportProperties importProperties;
+    private ExecutorService callers;
+    private DealWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        importProperties = new ImportProperties();
+        importProperties.getGroupCommit().setEnabled(true);
+        importProperties.getGroupCommit().setMaxDelay(Duration.ofMillis(50));
+        callers = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (buffer != null) {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    void insertIfAbsent_ShouldCommitConcurrentCallersTogether() throws Exception {
+        AtomicInteger commits = new AtomicInteger();
+        when(fxDealRepository.insertAllIfAbsent(anyList())).thenAnswer(invocation -> {
+            commits.incrementAndGet();
+            List<FxDeal> deals = invocation.getArgument(0);
+            Set<String> inserted = new HashSet<>();
+            deals.forEach(deal -> inserted.add(deal.getDealId()));
+            inserted.remove("EXISTING");
+            return inserted;
+        });
+        buffer = new DealWriteBuffer(fxDealRepository, importProperties, new ImportMetrics(new SimpleMeterRegistry()));
+        List<String> dealIds = List.of("DEAL1", "DEAL2", "DEAL3", "DEAL4", "DEAL5", "DEAL1", "EXISTING");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (String dealId : dealIds) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return buffer.insertIfAbsent(deal(dealId));
+            }));
+        }
+        start.countDown();
+
+        int inserted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                inserted++;
+            }
+        }
+
+        assertEquals(5, inserted);
+        assertFalse(results.get(6).get());
+        assertTrue(commits.get() < dealIds.size());
+    }
+
+    @Test
+    void insertIfAbsent_WhenCommitFails_ShouldRethrowToCaller() {
+        when(fxDealRepository.insertAllIfAbsent(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        buffer = new DealWriteBuffer(fxDealRepository, importProperties, new ImportMetrics(new SimpleMeterRegistry()));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> buffer.insertIfAbsent(deal("DEAL1")));
+    }
+
+    @Test
+    void insertIfAbsent_WhenOneDealIsRefused_ShouldOnlyFailThatCaller() throws Exception {
+        when(fxDealRepository.insertAllIfAbsent(anyList())).thenAnswer(invocation -> {
+            List<FxDeal> deals = invocation.getArgument(0);
+            Set<String> inserted = new HashSet<>();
+            for (FxDeal deal : deals) {
+                if ("BAD".equals(deal.getDealId())) {
+                    throw new DataIntegrityViolationException("value too long");
+                }
+                inserted.add(deal.getDealId());
+            }
+            return inserted;
+        });
+        lenient().when(fxDealRepository.insertIfAbsent(any(FxDeal.class))).thenAnswer(invocation -> {
+            FxDeal deal = invocation.getArgument(0);
+            if ("BAD".equals(deal.getDealId())) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return true;
+        });
+        importProperties.getGroupCommit().setMaxDelay(Duration.ofMillis(200));
+        buffer = new DealWriteBuffer(fxDealRepository, importProperties, new ImportMetrics(new SimpleMeterRegistry()));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (String dealId : List.of("DEAL1", "BAD", "DEAL2")) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return buffer.insertIfAbsent(deal(dealId));
+            }));
+        }
+        start.countDown();
+
+        assertTrue(results.get(0).get());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> results.get(1).get());
+        assertInstanceOf(DataIntegrityViolationException.class, failure.getCause());
+        assertTrue(results.get(2).get());
+    }
+
+    @Test
+    void insertIfAbsent_WhenTheCommitHangs_ShouldFailWithATimeout() throws Exception {
+        importProperties.getGroupCommit().setCommitTimeout(Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+        when(fxDealRepository.insertAllIfAbsent(anyList())).thenAnswer(invocation -> {
+            release.await();
+            return Set.of();
+        });
+        buffer = new DealWriteBuffer(fxDealRepository, importProperties, new ImportMetrics(new SimpleMeterRegistry()));
+
+        try {
+            assertThrows(QueryTimeoutException.class, () -> buffer.insertIfAbsent(deal("DEAL001")));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void insertIfAbsent_WhenTheWriterDiesOnAnError_ShouldFailCallersInsteadOfHanging() throws Exception {
+        when(fxDealRepository.insertAllIfAbsent(anyList())).thenThrow(new OutOfMemoryError("simulated"));
+        buffer = new DealWriteBuffer(fxDealRepository, importProperties, new ImportMetrics(new SimpleMeterRegistry()));
+
+        Future<Boolean> first = callers.submit(() -> buffer.insertIfAbsent(deal("DEAL001")));
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertThrows(IllegalStateException.class, () -> buffer.insertIfAbsent(deal("DEAL002")));
+    }
+
+    @Test
+    void isEnabled_ByDefault_ShouldBeFalse() {
+        DealWriteBuffer disabled = new DealWriteBuffer(fxDealRepository, new ImportProperties(),
+                new ImportMetrics(new SimpleMeterRegistry()));
+
+        assertFalse(disabled.isEnabled());
+        verifyNoInteractions(fxDealRepository);
+    }
+
+    private FxDeal deal(String dealId) {
+        return new FxDeal(dealId, "USD", "MAD", LocalDateTime.of(2025, 1, 1, 10, 0), new BigDecimal("1000"));
+    }
+}
@@ -0,0 +1,51 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.dto.DealError;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FailureLogSamplerTest {
+
+    @Test
+    void tryAcquire_ShouldStopAtTheLimitWithinOneSecond() {
+        FailureLogSampler sampler = new FailureLogSampler(properties(3));
+
+        int acquired = 0;
+        for (int i = 0; i < 10; i++) {
+            if (sampler.tryAcquire()) {
+                acquired++;
+            }
+        }
+
+        assertEquals(3, acquired);
+    }
+
+    @Test
+    void tryAcquire_WithZeroSamples_ShouldNeverLog() {
+        FailureLogSampler sampler = new FailureLogSampler(properties(0));
+
+        assertFalse(sampler.tryAcquire());
+    }
+
+    @Test
+    void failureLog_ShouldCountEveryFailureByTypeEvenWhenNotSampled() {
+        ImportFailureLog failureLog = new FailureLogSampler(properties(1)).newLog();
+
+        failureLog.record("DUPLICATE", new DealError("DEAL001", "Deal DEAL001 already exists", 1));
+        failureLog.record("SAME_CURRENCY", new DealError("DEAL002", "From and To currencies must be different", 2));
+        failureLog.record("DUPLICATE", new DealError("DEAL003", "Deal DEAL003 already exists", 3));
+
+        assertEquals(Map.of("DUPLICATE", 2, "SAME_CURRENCY", 1), failureLog.getCountsByType());
+        assertEquals("{DUPLICATE=2, SAME_CURRENCY=1}", failureLog.toString());
+    }
+
+    private ImportProperties properties(int samplesPerSecond) {
+        ImportProperties properties = new ImportProperties();
+        properties.getLogging().setFailureSamplesPerSecond(samplesPerSecond);
+        return properties;
+    }
+}
@@ -0,0 +1,117 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.QueryProperties;
+import bloomberg.fxdealswarehouse.dto.DealQuery;
+import bloomberg.fxdealswarehouse.dto.FxDealPage;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import bloomberg.fxdealswarehouse.exception.DealNotFoundException;
+import bloomberg.fxdealswarehouse.exception.InvalidQueryException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import bloomberg.fxdealswarehouse.repository.FxDealRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FxDealQueryServiceTest {
+    @Mock
+    private FxDealRepository fxDealRepository;
+    private QueryProperties queryProperties;
+    private FxDealQueryService fxDealQueryService;
+    private final LocalDateTime timestamp = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @BeforeEach
+    void setUp() {
+        queryProperties = new QueryProperties();
+        queryProperties.setDefaultPageSize(2);
+        queryProperties.setMaxPageSize(5);
+        fxDealQueryService = new FxDealQueryService(fxDealRepository, queryProperties,
+                new DealCache(queryProperties, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void findDeals_WhenMoreRowsExist_ShouldReturnCursorForNextPage() {
+        when(fxDealRepository.findPage(any(DealQuery.class), isNull(), isNull(), eq(3)))
+                .thenReturn(List.of(deal("DEAL001"), deal("DEAL002"), deal("DEAL003")));
+
+        FxDealPage page = fxDealQueryService.findDeals(new DealQuery());
+
+        assertEquals(2, page.getSize());
+        assertEquals("DEAL002", page.getDeals().get(1).getDealId());
+        assertNotNull(page.getNextCursor());
+
+        DealQuery next = new DealQuery();
+        next.setCursor(page.getNextCursor());
+        when(fxDealRepository.findPage(any(DealQuery.class), eq(timestamp), eq("DEAL002"), eq(3)))
+                .thenReturn(List.of(deal("DEAL003")));
+
+        FxDealPage last = fxDealQueryService.findDeals(next);
+
+        assertEquals(1, last.getSize());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void findDeals_ShouldClampLimitToMaxPageSize() {
+        DealQuery query = new DealQuery();
+        query.setLimit(10_000);
+        when(fxDealRepository.findPage(any(DealQuery.class), isNull(), isNull(), eq(6))).thenReturn(List.of());
+
+        FxDealPage page = fxDealQueryService.findDeals(query);
+
+        assertEquals(0, page.getSize());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findDeals_WithInvalidParameters_ShouldThrowInvalidQueryException() {
+        DealQuery badCursor = new DealQuery();
+        badCursor.setCursor("not-a-cursor!");
+        DealQuery badLimit = new DealQuery();
+        badLimit.setLimit(0);
+        DealQuery badRange = new DealQuery();
+        badRange.setMinAmount(new BigDecimal("10"));
+        badRange.setMaxAmount(new BigDecimal("1"));
+
+        assertThrows(InvalidQueryException.class, () -> fxDealQueryService.findDeals(badCursor));
+        assertThrows(InvalidQueryException.class, () -> fxDealQueryService.findDeals(badLimit));
+        assertThrows(InvalidQueryException.class, () -> fxDealQueryService.findDeals(badRange));
+        verifyNoInteractions(fxDealRepository);
+    }
+
+    @Test
+    void findDeal_ShouldLoadOnceAndServeRepeatLookupsFromCache() {
+        when(fxDealRepository.findById("DEAL001")).thenReturn(Optional.of(deal("DEAL001")));
+
+        FxDeal first = fxDealQueryService.findDeal("DEAL001");
+        FxDeal second = fxDealQueryService.findDeal("DEAL001");
+
+        assertEquals("DEAL001", first.getDealId());
+        assertSame(first, second);
+        verify(fxDealRepository, times(1)).findById("DEAL001");
+    }
+
+    @Test
+    void findDeal_WithUnknownId_ShouldThrowAndNotCacheTheMiss() {
+        when(fxDealRepository.findById("DEAL404")).thenReturn(Optional.empty());
+
+        assertThrows(DealNotFoundException.class, () -> fxDealQueryService.findDeal("DEAL404"));
+        assertThrows(DealNotFoundException.class, () -> fxDealQueryService.findDeal("DEAL404"));
+        verify(fxDealRepository, times(2)).findById("DEAL404");
+    }
+
+    private FxDeal deal(String dealId) {
+        return new FxDeal(dealId, "USD", "MAD", timestamp, new BigDecimal("1000"));
+    }
+}
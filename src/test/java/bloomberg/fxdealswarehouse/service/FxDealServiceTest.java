@@ -1,21 +1,32 @@
 package bloomberg.fxdealswarehouse.service;
 
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.config.QueryProperties;
 import bloomberg.fxdealswarehouse.dto.*;
 import bloomberg.fxdealswarehouse.entity.FxDeal;
 import bloomberg.fxdealswarehouse.exception.DuplicateDealException;
 import bloomberg.fxdealswarehouse.exception.InvalidDealException;
 import bloomberg.fxdealswarehouse.repository.FxDealRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,12 +38,23 @@ import static org.mockito.Mockito.*;
  class FxDealServiceTest {
     @Mock
     private FxDealRepository fxDealRepository;
-    @InjectMocks
+    private ImportProperties importProperties;
+    private DealIdBloomFilter dealIdFilter;
+    private DealCache dealCache;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService importExecutor;
     private FxDealService fxDealService;
     private FxDealRequest validRequest;
     private FxDeal savedDeal;
     @BeforeEach
     void setUp() {
+        importProperties = new ImportProperties();
+        importProperties.getBloomFilter().setExpectedInsertions(1_000);
+        dealIdFilter = new DealIdBloomFilter(importProperties);
+        meterRegistry = new SimpleMeterRegistry();
+        dealCache = new DealCache(new QueryProperties(), meterRegistry);
+        importExecutor = Executors.newFixedThreadPool(2);
+        fxDealService = newService(new DealJournal(importProperties, meterRegistry));
         validRequest = new FxDealRequest(
                 "DEAL001",
                 "USD",
@@ -49,10 +71,13 @@ import static org.mockito.Mockito.*;
                 new BigDecimal("1000.50")
         );
     }
+    @AfterEach
+    void tearDown() {
+        importExecutor.shutdownNow();
+    }
     @Test
     void importDeal_WithValidRequest_ShouldSaveDeal() {
-        when(fxDealRepository.existsByDealId("DEAL001")).thenReturn(false);
-        when(fxDealRepository.save(any(FxDeal.class))).thenReturn(savedDeal);
+        when(fxDealRepository.insertIfAbsent(any(FxDeal.class))).thenReturn(true);
 
         FxDealResponse response = fxDealService.importDeal(validRequest);
 
@@ -62,20 +87,52 @@ import static org.mockito.Mockito.*;
         assertEquals("MAD", response.getToCurrency());
         assertEquals(new BigDecimal("1000.50"), response.getDealAmount());
         assertEquals("Deal imported successfully", response.getMessage());
+        assertNotNull(response.getCreatedAt());
+
+        verify(fxDealRepository, times(1)).insertIfAbsent(any(FxDeal.class));
+        verify(fxDealRepository, never()).existsByDealId(anyString());
+    }
+    @Test
+    void importDeal_WithValidRequest_ShouldCacheDealForLookups() {
+        when(fxDealRepository.insertIfAbsent(any(FxDeal.class))).thenReturn(true);
 
-        verify(fxDealRepository, times(1)).existsByDealId("DEAL001");
-        verify(fxDealRepository, times(1)).save(any(FxDeal.class));
+        fxDealService.importDeal(validRequest);
+        FxDeal cached = dealCache.get("DEAL001", id -> fail("lookup should be served from the cache"));
+
+        assertEquals("DEAL001", cached.getDealId());
+        assertEquals(new BigDecimal("1000.50"), cached.getDealAmount());
+    }
+    @Test
+    void importDeal_WhenDatabaseIsDown_ShouldJournalDealAndSkipDatabaseUntilReplayed(@TempDir Path journalDir) {
+        importProperties.getJournal().setEnabled(true);
+        importProperties.getJournal().setDirectory(journalDir.toString());
+        DealJournal journal = new DealJournal(importProperties, meterRegistry);
+        fxDealService = newService(journal);
+        when(fxDealRepository.insertIfAbsent(any(FxDeal.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        FxDealResponse first = fxDealService.importDeal(validRequest);
+        FxDealResponse second = fxDealService.importDeal(new FxDealRequest(
+                "DEAL002", "EUR", "USD", LocalDateTime.now(), new BigDecimal("5")));
+
+        assertTrue(first.isPending());
+        assertTrue(second.isPending());
+        assertTrue(journal.isDatabaseDown());
+        assertEquals(2, journal.getPendingCount());
+        verify(fxDealRepository, times(1)).insertIfAbsent(any(FxDeal.class));
+        assertEquals(2.0, meterRegistry.get("fx.deals.import.deals").tag("outcome", "journaled").counter().count());
+        journal.close();
     }
     @Test
     void importDeal_withDuplicateDealId_ShouldThrowException() {
-        when(fxDealRepository.existsByDealId("DEAL001")).thenReturn(true);
+        when(fxDealRepository.insertIfAbsent(any(FxDeal.class))).thenReturn(false);
         DuplicateDealException exception = assertThrows(
                 DuplicateDealException.class,
                 () -> fxDealService.importDeal(validRequest)
         );
         assertEquals("Deal DEAL001 already exists", exception.getMessage());
-        verify(fxDealRepository, times(1)).existsByDealId("DEAL001");
-        verify(fxDealRepository, never()).save(any(FxDeal.class));
+        verify(fxDealRepository, times(1)).insertIfAbsent(any(FxDeal.class));
+        verify(fxDealRepository, never()).existsByDealId(anyString());
 
     }
     @Test
@@ -87,13 +144,12 @@ import static org.mockito.Mockito.*;
                LocalDateTime.now(),
                new BigDecimal("1000.50")
        );
-       when(fxDealRepository.existsByDealId("DEAL002")).thenReturn(false);
        IllegalArgumentException exception = assertThrows(
                IllegalArgumentException.class,
                () -> fxDealService.importDeal(invalidRequest)
        );
        assertTrue(exception.getMessage().contains("Invalid currency"));
-       verify(fxDealRepository, never()).save(any(FxDeal.class));
+       verify(fxDealRepository, never()).insertIfAbsent(any(FxDeal.class));
    }
 
     @Test
@@ -105,7 +161,6 @@ import static org.mockito.Mockito.*;
                 LocalDateTime.now(),
                 new BigDecimal("1000.50")
         );
-        when(fxDealRepository.existsByDealId("DEAL003")).thenReturn(false);
 
         IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
@@ -113,7 +168,7 @@ import static org.mockito.Mockito.*;
         );
 
         assertTrue(exception.getMessage().contains("Invalid currency"));
-        verify(fxDealRepository, never()).save(any(FxDeal.class));
+        verify(fxDealRepository, never()).insertIfAbsent(any(FxDeal.class));
     }
     @Test
     void importDeal_WithSameCurrencies_ShouldThrowException() {
@@ -124,13 +179,12 @@ import static org.mockito.Mockito.*;
                 LocalDateTime.now(),
                 new BigDecimal("1000.50")
         );
-        when(fxDealRepository.existsByDealId("DEAL004")).thenReturn(false);
         InvalidDealException exception = assertThrows(
                 InvalidDealException.class,
                 () -> fxDealService.importDeal(samecurrencies)
         );
         assertEquals("From and To currency cannot be same", exception.getMessage());
-        verify(fxDealRepository, never()).save(any(FxDeal.class));
+        verify(fxDealRepository, never()).insertIfAbsent(any(FxDeal.class));
     }
     @Test
     void importDealsInBatch_WithAllValidDeals_ShouldImportAll() {
@@ -141,8 +195,8 @@ import static org.mockito.Mockito.*;
 
         FxDealBatchRequest batchRequest = new FxDealBatchRequest(deals);
 
-        when(fxDealRepository.existsByDealId(anyString())).thenReturn(false);
-        when(fxDealRepository.save(any(FxDeal.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(fxDealRepository.findExistingDealIds(anyCollection())).thenReturn(new ArrayList<>());
+        stubInsertAllIfAbsent();
 
         FxDealBatchResponse response = fxDealService.importDealsInBatch(batchRequest);
 
@@ -151,8 +205,12 @@ import static org.mockito.Mockito.*;
         assertEquals(0, response.getFailureCount());
         assertEquals(3, response.getSuccessfulDeals().size());
         assertEquals(0, response.getFailedDeals().size());
+        assertNotNull(response.getSuccessfulDeals().get(0).getCreatedAt());
 
-        verify(fxDealRepository, times(3)).save(any(FxDeal.class));
+        verify(fxDealRepository, times(1)).findExistingDealIds(anyCollection());
+        verify(fxDealRepository, times(1)).insertAllIfAbsent(argThat(inserted -> inserted.size() == 3));
+        verify(fxDealRepository, never()).insertIfAbsent(any(FxDeal.class));
+        verify(fxDealRepository, never()).existsByDealId(anyString());
     }
 
     @Test
@@ -164,8 +222,8 @@ import static org.mockito.Mockito.*;
 
         FxDealBatchRequest batchRequest = new FxDealBatchRequest(deals);
 
-        when(fxDealRepository.existsByDealId(anyString())).thenReturn(false);
-        when(fxDealRepository.save(any(FxDeal.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(fxDealRepository.findExistingDealIds(anyCollection())).thenReturn(new ArrayList<>());
+        stubInsertAllIfAbsent();
 
         FxDealBatchResponse response = fxDealService.importDealsInBatch(batchRequest);
 
@@ -180,7 +238,7 @@ import static org.mockito.Mockito.*;
         assertEquals(2, error.getRowNumber());
         assertTrue(error.getErrorMessage().contains("Invalid currency"));
 
-        verify(fxDealRepository, times(2)).save(any(FxDeal.class));
+        verify(fxDealRepository, times(1)).insertAllIfAbsent(argThat(inserted -> inserted.size() == 2));
     }
     @Test
     void importDealsInBatch_WithDuplicateDeals_ShouldRejectDuplicates() {
@@ -190,9 +248,8 @@ import static org.mockito.Mockito.*;
 
         FxDealBatchRequest batchRequest = new FxDealBatchRequest(deals);
 
-        when(fxDealRepository.existsByDealId("DEAL001")).thenReturn(false);
-        when(fxDealRepository.existsByDealId("DEAL002")).thenReturn(true);
-        when(fxDealRepository.save(any(FxDeal.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(fxDealRepository.findExistingDealIds(anyCollection())).thenReturn(List.of("DEAL002"));
+        stubInsertAllIfAbsent();
 
         FxDealBatchResponse response = fxDealService.importDealsInBatch(batchRequest);
 
@@ -202,9 +259,28 @@ import static org.mockito.Mockito.*;
 
         DealError error = response.getFailedDeals().get(0);
         assertEquals("DEAL002", error.getDealId());
+        assertEquals(DealError.DUPLICATE, error.getReasonCode());
         assertTrue(error.getErrorMessage().contains("already exists"));
 
-        verify(fxDealRepository, times(1)).save(any(FxDeal.class));
+        verify(fxDealRepository, times(1)).insertAllIfAbsent(argThat(inserted -> inserted.size() == 1));
+    }
+
+    @Test
+    void importDealsInBatch_WithDuplicateInsideBatch_ShouldKeepFirstOccurrence() {
+        List<FxDealRequest> deals = new ArrayList<>();
+        deals.add(new FxDealRequest("DEAL001", "USD", "MAD", LocalDateTime.now(), new BigDecimal("1000")));
+        deals.add(new FxDealRequest("DEAL001", "MAD", "EUR", LocalDateTime.now(), new BigDecimal("2000")));
+
+        when(fxDealRepository.findExistingDealIds(anyCollection())).thenReturn(new ArrayList<>());
+        stubInsertAllIfAbsent();
+
+        FxDealBatchResponse response = fxDealService.importDealsInBatch(new FxDealBatchRequest(deals));
+
+        assertEquals(1, response.getSuccessCount());
+        assertEquals(1, response.getFailureCount());
+        assertEquals("USD", response.getSuccessfulDeals().get(0).getFromCurrency());
+        assertEquals(2, response.getFailedDeals().get(0).getRowNumber());
+        assertEquals("Deal DEAL001 already exists", response.getFailedDeals().get(0).getErrorMessage());
     }
 
     @Test
@@ -215,8 +291,8 @@ import static org.mockito.Mockito.*;
 
         FxDealBatchRequest batchRequest = new FxDealBatchRequest(deals);
 
-        when(fxDealRepository.existsByDealId(anyString())).thenReturn(false);
-        when(fxDealRepository.save(any(FxDeal.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(fxDealRepository.findExistingDealIds(anyCollection())).thenReturn(new ArrayList<>());
+        stubInsertAllIfAbsent();
 
         FxDealBatchResponse response = fxDealService.importDealsInBatch(batchRequest);
 
@@ -226,33 +302,261 @@ import static org.mockito.Mockito.*;
 
         DealError error = response.getFailedDeals().get(0);
         assertEquals("DEAL002", error.getDealId());
+        assertEquals("SAME_CURRENCY", error.getReasonCode());
         assertEquals("From and To currency cannot be same", error.getErrorMessage());
 
-        verify(fxDealRepository, times(1)).save(any(FxDeal.class));
+        verify(fxDealRepository, times(1)).insertAllIfAbsent(argThat(inserted -> inserted.size() == 1));
+    }
+
+    @Test
+    void importDealsInBatch_WithMissingFields_ShouldRejectWithoutUnexpectedError() {
+        List<FxDealRequest> deals = new ArrayList<>();
+        deals.add(new FxDealRequest(null, "USD", "MAD", LocalDateTime.now(), new BigDecimal("1000")));
+        deals.add(new FxDealRequest("DEAL002", null, "EUR", LocalDateTime.now(), new BigDecimal("2000")));
+        deals.add(new FxDealRequest("DEAL003", "USD", "EUR", null, new BigDecimal("3000")));
+
+        when(fxDealRepository.findExistingDealIds(anyCollection())).thenReturn(new ArrayList<>());
+
+        FxDealBatchResponse response = fxDealService.importDealsInBatch(new FxDealBatchRequest(deals));
+
+        assertEquals(0, response.getSuccessCount());
+        assertEquals(3, response.getFailureCount());
+        assertEquals("Deal ID is required", response.getFailedDeals().get(0).getErrorMessage());
+        assertTrue(response.getFailedDeals().get(1).getErrorMessage().contains("Invalid currency"));
+        assertEquals("Deal timestamp is required", response.getFailedDeals().get(2).getErrorMessage());
+    }
+
+    @Test
+    void importDealsInBatch_ShouldSplitBatchIntoChunks() {
+        importProperties.setChunkSize(2);
+        List<FxDealRequest> deals = new ArrayList<>();
+        deals.add(new FxDealRequest("DEAL001", "USD", "EUR", LocalDateTime.now(), new BigDecimal("1000")));
+        deals.add(new FxDealRequest("DEAL002", "MAD", "EUR", LocalDateTime.now(), new BigDecimal("2000")));
+        deals.add(new FxDealRequest("DEAL003", "EUR", "EUR", LocalDateTime.now(), new BigDecimal("3000")));
+
+        when(fxDealRepository.findExistingDealIds(anyCollection())).thenReturn(new ArrayList<>());
+        stubInsertAllIfAbsent();
+
+        FxDealBatchResponse response = fxDealService.importDealsInBatch(new FxDealBatchRequest(deals));
+
+        assertEquals(2, response.getSuccessCount());
+        assertEquals(1, response.getFailureCount());
+        assertEquals(3, response.getFailedDeals().get(0).getRowNumber());
+        verify(fxDealRepository, times(2)).findExistingDealIds(anyCollection());
+        verify(fxDealRepository, times(1)).insertAllIfAbsent(anyList());
+        verify(fxDealRepository, times(1)).insertAllIfAbsent(argThat(inserted -> inserted.size() == 2));
+    }
+
+    @Test
+    void importDealsInBatch_WithFailuresMode_ShouldOnlyListFailures() {
+        List<FxDealRequest> deals = new ArrayList<>();
+        deals.add(new FxDealRequest("DEAL001", "USD", "EUR", LocalDateTime.now(), new BigDecimal("1000")));
+        deals.add(new FxDealRequest("DEAL002", "MAD", "MAD", LocalDateTime.now(), new BigDecimal("2000")));
+
+        when(fxDealRepository.findExistingDealIds(anyCollection())).thenReturn(new ArrayList<>());
+        stubInsertAllIfAbsent();
+
+        FxDealBatchResponse response = fxDealService.importDealsInBatch(new FxDealBatchRequest(deals),
+                BatchResponseMode.FAILURES);
+
+        assertEquals(1, response.getSuccessCount());
+        assertEquals(1, response.getFailureCount());
+        assertNull(response.getSuccessfulDeals());
+        assertEquals("SAME_CURRENCY", response.getFailedDeals().get(0).getReasonCode());
+    }
+
+    @Test
+    void importDealsInBatch_WithSummaryMode_ShouldOnlyCount() {
+        List<FxDealRequest> deals = new ArrayList<>();
+        deals.add(new FxDealRequest("DEAL001", "USD", "EUR", LocalDateTime.now(), new BigDecimal("1000")));
+        deals.add(new FxDealRequest("DEAL002", "MAD", "MAD", LocalDateTime.now(), new BigDecimal("2000")));
+
+        when(fxDealRepository.findExistingDealIds(anyCollection())).thenReturn(new ArrayList<>());
+        stubInsertAllIfAbsent();
+
+        FxDealBatchResponse response = fxDealService.importDealsInBatch(new FxDealBatchRequest(deals),
+                BatchResponseMode.SUMMARY);
+
+        assertEquals(2, response.getTotalRequested());
+        assertEquals(1, response.getSuccessCount());
+        assertEquals(1, response.getFailureCount());
+        assertNull(response.getSuccessfulDeals());
+        assertNull(response.getFailedDeals());
+    }
+
+    @Test
+    void importDealsInBatch_WhenConcurrentImportWinsTheInsert_ShouldReportDuplicate() {
+        List<FxDealRequest> deals = new ArrayList<>();
+        deals.add(new FxDealRequest("DEAL001", "USD", "EUR", LocalDateTime.now(), new BigDecimal("1000")));
+        deals.add(new FxDealRequest("DEAL002", "MAD", "EUR", LocalDateTime.now(), new BigDecimal("2000")));
+
+        when(fxDealRepository.findExistingDealIds(anyCollection())).thenReturn(new ArrayList<>());
+        when(fxDealRepository.insertAllIfAbsent(anyList())).thenReturn(Set.of("DEAL001"));
+
+        FxDealBatchResponse response = fxDealService.importDealsInBatch(new FxDealBatchRequest(deals));
+
+        assertEquals(1, response.getSuccessCount());
+        assertEquals("DEAL001", response.getSuccessfulDeals().get(0).getDealId());
+        assertEquals(1, response.getFailureCount());
+        assertEquals("Deal DEAL002 already exists", response.getFailedDeals().get(0).getErrorMessage());
+        assertEquals(2, response.getFailedDeals().get(0).getRowNumber());
+    }
+
+    @Test
+    void importDealsInBatch_WhenDatabaseRefusesOneRow_ShouldRetryRowByRowAndReportOnlyThatRow() {
+        List<FxDealRequest> deals = new ArrayList<>();
+        deals.add(new FxDealRequest("DEAL001", "USD", "EUR", LocalDateTime.now(), new BigDecimal("1000")));
+        deals.add(new FxDealRequest("DEAL002", "MAD", "EUR", LocalDateTime.now(), new BigDecimal("2000")));
+        deals.add(new FxDealRequest("DEAL003", "GBP", "EUR", LocalDateTime.now(), new BigDecimal("3000")));
+
+        when(fxDealRepository.insertAllIfAbsent(anyList()))
+                .thenThrow(new DataIntegrityViolationException("value too long"));
+        when(fxDealRepository.insertIfAbsent(any(FxDeal.class))).thenAnswer(invocation -> {
+            FxDeal deal = invocation.getArgument(0);
+            if ("DEAL002".equals(deal.getDealId())) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return !"DEAL003".equals(deal.getDealId());
+        });
+
+        FxDealBatchResponse response = fxDealService.importDealsInBatch(new FxDealBatchRequest(deals));
+
+        assertEquals(1, response.getSuccessCount());
+        assertEquals(2, response.getFailureCount());
+        DealError rejected = response.getFailedDeals().get(0);
+        assertEquals(DealError.REJECTED, rejected.getReasonCode());
+        assertEquals(2, rejected.getRowNumber());
+        assertEquals(DealError.DUPLICATE, response.getFailedDeals().get(1).getReasonCode());
+        assertEquals(1.0, meterRegistry.get("fx.deals.import.deals").tag("outcome", "invalid").counter().count());
+        assertEquals(1.0, meterRegistry.get("fx.deals.import.deals").tag("outcome", "duplicate").counter().count());
+    }
+
+    @Test
+    void importDealsInBatch_WhenDatabaseIsDown_ShouldNotRetryRowByRow() {
+        List<FxDealRequest> deals = List.of(
+                new FxDealRequest("DEAL001", "USD", "EUR", LocalDateTime.now(), new BigDecimal("1000")));
+        when(fxDealRepository.insertAllIfAbsent(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> fxDealService.importDealsInBatch(new FxDealBatchRequest(deals)));
+        verify(fxDealRepository, never()).insertIfAbsent(any(FxDeal.class));
+    }
+
+    @Test
+    void importDealsInBatch_InParallel_ShouldKeepRowNumbersAndCountsExact() {
+        importProperties.setChunkSize(10);
+        importProperties.setParallelism(2);
+        List<FxDealRequest> deals = new ArrayList<>();
+        for (int i = 1; i <= 95; i++) {
+            String toCurrency = i % 7 == 0 ? "USD" : "EUR";
+            deals.add(new FxDealRequest("DEAL" + i, "USD", toCurrency, LocalDateTime.now(), new BigDecimal(i)));
+        }
+        when(fxDealRepository.findExistingDealIds(anyCollection())).thenReturn(List.of("DEAL50"));
+        stubInsertAllIfAbsent();
+
+        FxDealBatchResponse response = fxDealService.importDealsInBatch(new FxDealBatchRequest(deals));
+
+        assertEquals(95, response.getTotalRequested());
+        assertEquals(81, response.getSuccessCount());
+        assertEquals(14, response.getFailureCount());
+        assertEquals(response.getSuccessCount(), response.getSuccessfulDeals().size());
+        assertEquals(response.getFailureCount(), response.getFailedDeals().size());
+        int previousRow = 0;
+        for (DealError error : response.getFailedDeals()) {
+            assertTrue(error.getRowNumber() > previousRow);
+            assertEquals("DEAL" + error.getRowNumber(), error.getDealId());
+            previousRow = error.getRowNumber();
+        }
+        assertEquals("DEAL1", response.getSuccessfulDeals().get(0).getDealId());
+        assertEquals("DEAL95", response.getSuccessfulDeals().get(80).getDealId());
+        verify(fxDealRepository, times(10)).insertAllIfAbsent(anyList());
     }
 
     @Test
-    void getAllDeals_ShouldReturnAllDeals() {
-        List<FxDeal> deals = new ArrayList<>();
-        deals.add(savedDeal);
+    void importDealsInBatch_ShouldReportProgressAfterEveryChunk() {
+        importProperties.setChunkSize(2);
+        List<FxDealRequest> deals = new ArrayList<>();
+        deals.add(new FxDealRequest("DEAL001", "USD", "EUR", LocalDateTime.now(), new BigDecimal("1000")));
+        deals.add(new FxDealRequest("DEAL002", "MAD", "MAD", LocalDateTime.now(), new BigDecimal("2000")));
+        deals.add(new FxDealRequest("DEAL003", "EUR", "CHF", LocalDateTime.now(), new BigDecimal("3000")));
+        when(fxDealRepository.findExistingDealIds(anyCollection())).thenReturn(new ArrayList<>());
+        stubInsertAllIfAbsent();
+        List<int[]> updates = new ArrayList<>();
+
+        fxDealService.importDealsInBatch(new FxDealBatchRequest(deals),
+                (processed, successCount, failureCount) -> updates.add(new int[]{processed, successCount, failureCount}));
 
-        when(fxDealRepository.findAll()).thenReturn(deals);
+        assertEquals(2, updates.size());
+        assertArrayEquals(new int[]{2, 1, 1}, updates.get(0));
+        assertArrayEquals(new int[]{3, 2, 1}, updates.get(1));
+    }
 
-        List<FxDeal> result = fxDealService.getAllDeals();
+    @Test
+    void importDealsInBatch_WhenFilterRulesOutEveryId_ShouldSkipDuplicateLookup() {
+        dealIdFilter.put("DEAL999");
+        dealIdFilter.markReady();
+        List<FxDealRequest> deals = new ArrayList<>();
+        deals.add(new FxDealRequest("DEAL001", "USD", "EUR", LocalDateTime.now(), new BigDecimal("1000")));
+        deals.add(new FxDealRequest("DEAL002", "MAD", "EUR", LocalDateTime.now(), new BigDecimal("2000")));
+        stubInsertAllIfAbsent();
 
-        assertEquals(1, result.size());
-        assertEquals("DEAL001", result.get(0).getDealId());
+        FxDealBatchResponse response = fxDealService.importDealsInBatch(new FxDealBatchRequest(deals));
 
-        verify(fxDealRepository, times(1)).findAll();
+        assertEquals(2, response.getSuccessCount());
+        verify(fxDealRepository, never()).findExistingDealIds(anyCollection());
+        assertTrue(dealIdFilter.mightContain("DEAL001"));
+        assertTrue(dealIdFilter.mightContain("DEAL002"));
     }
 
     @Test
-    void getAllDeals_WhenNoDealExists_ShouldReturnEmptyList() {
-        when(fxDealRepository.findAll()).thenReturn(new ArrayList<>());
+    void importDealsInBatch_WhenFilterReportsPossibleDuplicate_ShouldConfirmAgainstDatabase() {
+        dealIdFilter.put("DEAL002");
+        dealIdFilter.markReady();
+        List<FxDealRequest> deals = new ArrayList<>();
+        deals.add(new FxDealRequest("DEAL001", "USD", "EUR", LocalDateTime.now(), new BigDecimal("1000")));
+        deals.add(new FxDealRequest("DEAL002", "MAD", "EUR", LocalDateTime.now(), new BigDecimal("2000")));
+        when(fxDealRepository.findExistingDealIds(anyCollection())).thenReturn(List.of("DEAL002"));
+        stubInsertAllIfAbsent();
 
-        List<FxDeal> result = fxDealService.getAllDeals();
+        FxDealBatchResponse response = fxDealService.importDealsInBatch(new FxDealBatchRequest(deals));
+
+        assertEquals(1, response.getSuccessCount());
+        assertEquals("Deal DEAL002 already exists", response.getFailedDeals().get(0).getErrorMessage());
+        verify(fxDealRepository, times(1)).findExistingDealIds(argThat(ids -> ids.size() == 1 && ids.contains("DEAL002")));
+    }
+
+    @Test
+    void importDealsInBatch_ShouldRecordOutcomesAndStageTimings() {
+        List<FxDealRequest> deals = new ArrayList<>();
+        deals.add(new FxDealRequest("DEAL001", "USD", "EUR", LocalDateTime.now(), new BigDecimal("1000")));
+        deals.add(new FxDealRequest("DEAL002", "MAD", "EUR", LocalDateTime.now(), new BigDecimal("2000")));
+        deals.add(new FxDealRequest("DEAL003", "EUR", "EUR", LocalDateTime.now(), new BigDecimal("3000")));
+        when(fxDealRepository.findExistingDealIds(anyCollection())).thenReturn(List.of("DEAL002"));
+        stubInsertAllIfAbsent();
+
+        fxDealService.importDealsInBatch(new FxDealBatchRequest(deals));
+
+        assertEquals(1.0, meterRegistry.get("fx.deals.import.deals").tag("outcome", "imported").counter().count());
+        assertEquals(1.0, meterRegistry.get("fx.deals.import.deals").tag("outcome", "duplicate").counter().count());
+        assertEquals(1.0, meterRegistry.get("fx.deals.import.deals").tag("outcome", "invalid").counter().count());
+        assertEquals(3.0, meterRegistry.get("fx.deals.import.batch.size").summary().totalAmount());
+        for (String stage : List.of("validate", "dedup_lookup", "persist", "response_build")) {
+            assertEquals(1, meterRegistry.get("fx.deals.import.stage").tag("stage", stage).timer().count());
+        }
+    }
+
+    private void stubInsertAllIfAbsent() {
+        when(fxDealRepository.insertAllIfAbsent(anyList())).thenAnswer(invocation -> {
+            List<FxDeal> inserted = invocation.getArgument(0);
+            return inserted.stream().map(FxDeal::getDealId).collect(Collectors.toSet());
+        });
+    }
 
-        assertEquals(0, result.size());
-        verify(fxDealRepository, times(1)).findAll();
+    private FxDealService newService(DealJournal journal) {
+        ImportMetrics metrics = new ImportMetrics(meterRegistry);
+        return new FxDealService(fxDealRepository, importProperties, dealIdFilter, dealCache,
+                new DealWriteBuffer(fxDealRepository, importProperties, metrics), journal, new DealValidator(),
+                metrics, new FailureLogSampler(importProperties), importExecutor);
     }
 }
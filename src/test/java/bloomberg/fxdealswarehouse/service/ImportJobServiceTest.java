@@ -0,0 +1,179 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.dto.BatchResponseMode;
+import bloomberg.fxdealswarehouse.dto.FxDealBatchRequest;
+import bloomberg.fxdealswarehouse.dto.FxDealBatchResponse;
+import bloomberg.fxdealswarehouse.dto.FxDealRequest;
+import bloomberg.fxdealswarehouse.dto.ImportJobResponse;
+import bloomberg.fxdealswarehouse.entity.ImportJob;
+import bloomberg.fxdealswarehouse.entity.JobStatus;
+import bloomberg.fxdealswarehouse.exception.JobQueueFullException;
+import bloomberg.fxdealswarehouse.repository.ImportJobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+    @Mock
+    private FxDealService fxDealService;
+    @Mock
+    private ImportJobRepository importJobRepository;
+    @Mock
+    private ExecutorService jobExecutor;
+    private ObjectMapper objectMapper;
+    private ImportJobService importJobService;
+    private final Map<String, ImportJob> jobs = new HashMap<>();
+    private FxDealBatchRequest batchRequest;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        importJobService = new ImportJobService(fxDealService, importJobRepository, jobExecutor, objectMapper,
+                new ImportProperties());
+        lenient().when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> {
+            ImportJob job = invocation.getArgument(0);
+            jobs.put(job.getJobId(), job);
+            return job;
+        });
+        batchRequest = new FxDealBatchRequest(List.of(
+                new FxDealRequest("DEAL001", "USD", "EUR", LocalDateTime.now(), new BigDecimal("1000"))));
+    }
+
+    @Test
+    void submit_ShouldQueueJobAndReturnImmediately() {
+        ImportJobResponse response = importJobService.submit(batchRequest);
+
+        assertEquals(JobStatus.QUEUED, response.getStatus());
+        assertEquals(1, response.getTotalRequested());
+        assertNotNull(response.getJobId());
+        verify(jobExecutor, times(1)).execute(any(Runnable.class));
+        verify(fxDealService, never()).importDealsInBatch(any(), any(), any(BatchProgressListener.class));
+    }
+
+    @Test
+    void submit_WhenQueueIsFull_ShouldFailJobAndReject() {
+        doThrow(new RejectedExecutionException()).when(jobExecutor).execute(any(Runnable.class));
+
+        assertThrows(JobQueueFullException.class, () -> importJobService.submit(batchRequest));
+
+        ImportJob job = jobs.values().iterator().next();
+        assertEquals(JobStatus.FAILED, job.getStatus());
+    }
+
+    @Test
+    void run_ShouldReportProgressAndStoreFinalResult() {
+        ImportJob job = new ImportJob("job-1", 1);
+        jobs.put("job-1", job);
+        when(importJobRepository.findById("job-1")).thenAnswer(invocation -> Optional.ofNullable(jobs.get("job-1")));
+        FxDealBatchResponse batchResponse = new FxDealBatchResponse();
+        batchResponse.setTotalRequested(1);
+        batchResponse.setSuccessCount(1);
+        when(fxDealService.importDealsInBatch(eq(batchRequest), eq(BatchResponseMode.FAILURES),
+                any(BatchProgressListener.class))).thenAnswer(invocation -> {
+            BatchProgressListener progress = invocation.getArgument(2);
+            progress.onProgress(1, 1, 0);
+            return batchResponse;
+        });
+
+        importJobService.run("job-1", batchRequest);
+        ImportJobResponse response = importJobService.getJob("job-1");
+
+        verify(importJobRepository, times(1)).updateProgress("job-1", 1, 1, 0);
+        assertEquals(JobStatus.COMPLETED, response.getStatus());
+        assertEquals(1, response.getProcessedCount());
+        assertEquals(1, response.getSuccessCount());
+        assertNotNull(response.getFinishedAt());
+        assertNotNull(response.getResult());
+        assertEquals(1, response.getResult().getSuccessCount());
+        assertNull(response.getEstimatedSecondsRemaining());
+    }
+
+    @Test
+    void run_WhenImportFails_ShouldMarkJobFailed() {
+        ImportJob job = new ImportJob("job-2", 1);
+        jobs.put("job-2", job);
+        when(importJobRepository.findById("job-2")).thenAnswer(invocation -> Optional.ofNullable(jobs.get("job-2")));
+        when(fxDealService.importDealsInBatch(eq(batchRequest), eq(BatchResponseMode.FAILURES),
+                any(BatchProgressListener.class)))
+                .thenThrow(new IllegalStateException("database down"));
+
+        importJobService.run("job-2", batchRequest);
+
+        assertEquals(JobStatus.FAILED, jobs.get("job-2").getStatus());
+        assertEquals("database down", jobs.get("job-2").getErrorMessage());
+    }
+
+    @Test
+    void run_WhenErrorMessageIsLong_ShouldStoreItTruncated() {
+        ImportJob job = new ImportJob("job-3", 1);
+        jobs.put("job-3", job);
+        when(importJobRepository.findById("job-3")).thenAnswer(invocation -> Optional.ofNullable(jobs.get("job-3")));
+        when(fxDealService.importDealsInBatch(eq(batchRequest), eq(BatchResponseMode.FAILURES),
+                any(BatchProgressListener.class)))
+                .thenThrow(new IllegalStateException("x".repeat(1000)));
+
+        importJobService.run("job-3", batchRequest);
+
+        assertEquals(JobStatus.FAILED, jobs.get("job-3").getStatus());
+        assertEquals(ImportJob.MAX_ERROR_MESSAGE_LENGTH, jobs.get("job-3").getErrorMessage().length());
+    }
+
+    @Test
+    void run_WhenFinalSaveFails_ShouldStillMarkJobFailed() {
+        ImportJob job = new ImportJob("job-4", 1);
+        when(importJobRepository.findById("job-4")).thenReturn(Optional.of(job));
+        when(fxDealService.importDealsInBatch(eq(batchRequest), eq(BatchResponseMode.FAILURES),
+                any(BatchProgressListener.class)))
+                .thenReturn(new FxDealBatchResponse());
+        when(importJobRepository.save(any(ImportJob.class)))
+                .thenReturn(job)
+                .thenThrow(new IllegalStateException("value too long for type character varying(255)"));
+
+        importJobService.run("job-4", batchRequest);
+
+        verify(importJobRepository, times(1)).markFinished(eq("job-4"), eq(JobStatus.FAILED),
+                argThat(message -> message.startsWith("Could not store the job outcome")), any(LocalDateTime.class));
+    }
+
+    @Test
+    void markInterruptedJobs_ShouldOnlyFlagJobsWithAStaleHeartbeat() {
+        when(importJobRepository.markStaleJobs(anyCollection(), any(LocalDateTime.class), eq(JobStatus.INTERRUPTED),
+                any(LocalDateTime.class))).thenReturn(2);
+        LocalDateTime before = LocalDateTime.now();
+
+        importJobService.markInterruptedJobs();
+
+        verify(importJobRepository, times(1)).markStaleJobs(eq(List.of(JobStatus.QUEUED, JobStatus.RUNNING)),
+                argThat(staleBefore -> !staleBefore.isAfter(LocalDateTime.now().minusMinutes(5))
+                        && !staleBefore.isBefore(before.minusMinutes(5))),
+                eq(JobStatus.INTERRUPTED), any(LocalDateTime.class));
+    }
+
+    @Test
+    void heartbeat_ShouldRefreshOnlyJobsHeldByThisInstance() {
+        ImportJobResponse queued = importJobService.submit(batchRequest);
+
+        importJobService.heartbeat();
+
+        verify(importJobRepository, times(1)).touch(eq(List.of(queued.getJobId())), any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,118 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.ImportProperties;
+import bloomberg.fxdealswarehouse.dto.FxDealRequest;
+import bloomberg.fxdealswarehouse.entity.FxDeal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NdjsonDealImporterTest {
+    @Mock
+    private FxDealService fxDealService;
+    private ImportProperties importProperties;
+    private ObjectMapper objectMapper;
+    private NdjsonDealImporter importer;
+    // copies: the importer reuses its chunk list, so the arguments Mockito records change under it
+    private final List<List<FxDealRequest>> chunks = new ArrayList<>();
+    private final List<Integer> firstRows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        importProperties = new ImportProperties();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        importer = new NdjsonDealImporter(fxDealService, importProperties,
+                new ImportMetrics(new SimpleMeterRegistry()), new FailureLogSampler(importProperties),
+                new NdjsonDealParser(objectMapper), objectMapper);
+        when(fxDealService.importChunk(anyList(), anyInt())).thenAnswer(invocation -> {
+            List<FxDealRequest> chunk = invocation.getArgument(0);
+            int firstRow = invocation.getArgument(1);
+            chunks.add(new ArrayList<>(chunk));
+            firstRows.add(firstRow);
+            DealChunkResult result = new DealChunkResult(firstRow, chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                FxDealRequest request = chunk.get(i);
+                if ("DEAL002".equals(request.getDealId())) {
+                    result.failed(i, request.getDealId(), DealChunkResult.DUPLICATE, "Deal DEAL002 already exists");
+                } else {
+                    result.imported(i, new FxDeal(request.getDealId(), request.getFromCurrency(),
+                            request.getToCurrency(), request.getDealTimestamp(), request.getDealAmount()));
+                }
+            }
+            return result;
+        });
+    }
+
+    @Test
+    void importStream_ShouldWriteOneResultLinePerDealInRowOrder() throws Exception {
+        String input = """
+                {"dealId":"DEAL001","fromCurrency":"USD","toCurrency":"EUR","dealTimestamp":"2025-11-26T10:30:00","dealAmount":1000.50}
+                {"dealId":"DEAL002","fromCurrency":"MAD","toCurrency":"USD","dealTimestamp":"2025-11-26T11:00:00","dealAmount":5000.00}
+                {"dealId":"DEAL003","fromCurrency":"EUR","toCurrency":"CHF","dealTimestamp":"not-a-date","dealAmount":2500.75}
+                {"dealId":"DEAL004","fromCurrency":"AUD","toCurrency":"USD","dealTimestamp":"2025-11-26T12:00:00","dealAmount":7500.25}
+                """;
+
+        List<JsonNode> lines = run(input);
+
+        assertEquals(4, lines.size());
+        assertEquals("IMPORTED", lines.get(0).get("status").asText());
+        assertEquals("FAILED", lines.get(1).get("status").asText());
+        assertEquals("DUPLICATE", lines.get(1).get("reasonCode").asText());
+        assertEquals("Deal DEAL002 already exists", lines.get(1).get("message").asText());
+        assertEquals(3, lines.get(2).get("rowNumber").asInt());
+        assertEquals("MALFORMED", lines.get(2).get("reasonCode").asText());
+        assertEquals("Malformed deal", lines.get(2).get("message").asText());
+        assertEquals("DEAL004", lines.get(3).get("dealId").asText());
+        assertEquals(4, lines.get(3).get("rowNumber").asInt());
+
+        assertEquals(List.of(1, 4), firstRows);
+        assertEquals(2, chunks.get(0).size());
+        assertEquals("DEAL004", chunks.get(1).get(0).getDealId());
+    }
+
+    @Test
+    void importStream_ShouldImportInBoundedChunks() throws Exception {
+        importProperties.setChunkSize(2);
+        StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= 5; i++) {
+            input.append("{\"dealId\":\"D").append(i).append("\",\"fromCurrency\":\"USD\",\"toCurrency\":\"EUR\",")
+                    .append("\"dealTimestamp\":\"2025-11-26T10:30:00\",\"dealAmount\":10}\n");
+        }
+
+        List<JsonNode> lines = run(input.toString());
+
+        assertEquals(5, lines.size());
+        assertEquals(5, lines.get(4).get("rowNumber").asInt());
+        verify(fxDealService, times(3)).importChunk(anyList(), anyInt());
+    }
+
+    private List<JsonNode> run(String input) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importer.importStream(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readTree(line);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,71 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.dto.DealError;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonDealParserTest {
+    private final NdjsonDealParser parser = new NdjsonDealParser(Jackson2ObjectMapperBuilder.json().build());
+
+    @Test
+    void next_ShouldFailMalformedRowsOnTheirOwnAndKeepReading() throws IOException {
+        String ndjson = """
+                {"dealId":"DEAL001","fromCurrency":"USD","toCurrency":"EUR","dealTimestamp":"2025-01-01T10:00:00","dealAmount":100}
+                [1, 2]
+                {"dealId":"DEAL002","dealAmount":{"nested":true}}
+                {"dealId":"DEAL003","fromCurrency":"GBP","toCurrency":"JPY","dealTimestamp":"2025-01-01T11:00:00","dealAmount":50}
+                """;
+
+        try (NdjsonDealParser.Rows rows = parser.open(stream(ndjson))) {
+            assertTrue(rows.next());
+            assertEquals("DEAL001", rows.getDeal().getDealId());
+            assertNull(rows.getError());
+
+            assertTrue(rows.next());
+            assertNull(rows.getDeal());
+            assertEquals(DealError.MALFORMED, rows.getError().getReasonCode());
+            assertEquals(2, rows.getError().getRowNumber());
+
+            assertTrue(rows.next());
+            assertNull(rows.getDeal());
+            assertEquals(3, rows.getError().getRowNumber());
+
+            assertTrue(rows.next());
+            assertEquals("DEAL003", rows.getDeal().getDealId());
+            assertEquals(4, rows.getRowNumber());
+
+            assertFalse(rows.next());
+            assertEquals(4, rows.getRowNumber());
+        }
+    }
+
+    @Test
+    void next_OnSyntaxError_ShouldFailThatRowAndStop() throws IOException {
+        String ndjson = """
+                {"dealId":"DEAL001","fromCurrency":"USD","toCurrency":"EUR","dealTimestamp":"2025-01-01T10:00:00","dealAmount":100}
+                {"dealId": oops}
+                {"dealId":"DEAL003","fromCurrency":"GBP","toCurrency":"JPY","dealTimestamp":"2025-01-01T11:00:00","dealAmount":50}
+                """;
+
+        try (NdjsonDealParser.Rows rows = parser.open(stream(ndjson))) {
+            assertTrue(rows.next());
+            assertTrue(rows.next());
+            assertNull(rows.getDeal());
+            assertEquals(2, rows.getError().getRowNumber());
+            assertTrue(rows.getError().getErrorMessage().startsWith("Malformed NDJSON, import stopped: "));
+
+            assertFalse(rows.next());
+            assertEquals(2, rows.getRowNumber());
+        }
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
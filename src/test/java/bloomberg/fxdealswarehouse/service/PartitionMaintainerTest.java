@@ -0,0 +1,102 @@
+package bloomberg.fxdealswarehouse.service;
+
+import bloomberg.fxdealswarehouse.config.PartitioningProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionMaintainerTest {
+    private static final String ENSURE_PARTITIONS_SQL =
+            "SELECT partition_table, moved_rows, failure FROM fx_deals_ensure_partitions(?, ?, ?)";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    private PartitioningProperties properties;
+    private SimpleMeterRegistry registry;
+    private PartitionMaintainer maintainer;
+    private final LocalDateTime now = LocalDateTime.of(2025, 6, 17, 9, 45);
+
+    @BeforeEach
+    void setUp() {
+        properties = new PartitioningProperties();
+        registry = new SimpleMeterRegistry();
+        maintainer = new PartitionMaintainer(jdbcTemplate, properties, registry);
+    }
+
+    @Test
+    void maintain_ShouldCreatePartitionsUpToHorizonWithoutDetachingByDefault() {
+        when(jdbcTemplate.queryForList(ENSURE_PARTITIONS_SQL, "month", now, now.plusMonths(3)))
+                .thenReturn(List.of(partition("fx_deals_p202509", 0, null)));
+
+        maintainer.maintain(now);
+
+        verify(jdbcTemplate).queryForList(ENSURE_PARTITIONS_SQL, "month", now, now.plusMonths(3));
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any(), any());
+        assertEquals(0, registry.get("fx.deals.partitions.maintenance.failures").counter().count());
+        assertEquals(now.atZone(ZoneId.systemDefault()).toEpochSecond(),
+                registry.get("fx.deals.partitions.maintenance.last.success").gauge().value());
+    }
+
+    @Test
+    void maintain_WithRetention_ShouldDetachPartitionsBeforeRetentionWindow() {
+        properties.setInterval(PartitioningProperties.Interval.DAY);
+        properties.setPrecreate(7);
+        properties.setRetention(30);
+        when(jdbcTemplate.queryForList(ENSURE_PARTITIONS_SQL, "day", now, now.plusDays(7))).thenReturn(List.of());
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any()))
+                .thenReturn(List.of("fx_deals_p20250517"));
+
+        maintainer.maintain(now);
+
+        verify(jdbcTemplate).queryForList(ENSURE_PARTITIONS_SQL, "day", now, now.plusDays(7));
+        verify(jdbcTemplate).queryForList("SELECT fx_deals_detach_partitions(?, ?)", String.class,
+                "day", LocalDateTime.of(2025, 5, 18, 0, 0));
+    }
+
+    @Test
+    void maintain_WhenAPartitionCannotBeCreated_ShouldCountTheFailureAndKeepLastSuccess() {
+        when(jdbcTemplate.queryForList(ENSURE_PARTITIONS_SQL, "month", now, now.plusMonths(3))).thenReturn(List.of(
+                partition("fx_deals_p202507", 12, null),
+                partition("fx_deals_p202508", 0, "lock timeout")));
+
+        maintainer.maintain(now);
+
+        assertEquals(1, registry.get("fx.deals.partitions.maintenance.failures").counter().count());
+        assertEquals(0, registry.get("fx.deals.partitions.maintenance.last.success").gauge().value());
+    }
+
+    @Test
+    void maintain_WhenTheDatabaseIsUnavailable_ShouldCountTheFailedRun() {
+        when(jdbcTemplate.queryForList(eq(ENSURE_PARTITIONS_SQL), eq("month"), any(LocalDateTime.class),
+                any(LocalDateTime.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        maintainer.maintain();
+
+        assertEquals(1, registry.get("fx.deals.partitions.maintenance.failures").counter().count());
+    }
+
+    private static Map<String, Object> partition(String name, long movedRows, String failure) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("partition_table", name);
+        row.put("moved_rows", movedRows);
+        row.put("failure", failure);
+        return row;
+    }
+}